@@ -0,0 +1,321 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.InputStream;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.function.DeploymentConfiguration;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.flow.server.DefaultDeploymentConfiguration;
+import com.vaadin.flow.server.InitParameters;
+import com.vaadin.flow.server.PwaRegistry;
+import com.vaadin.flow.server.RouteRegistry;
+import com.vaadin.flow.server.ServiceException;
+import com.vaadin.flow.server.VaadinContext;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
+
+/**
+ * A minimal servlet-less Vaadin environment for benchmarks: a service, a
+ * locked session and a UI set as the current instances of the calling thread.
+ * <p>
+ * Benchmark state is created with a fixed {@link #SEED} so that every run uses
+ * the same dataset.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class BenchmarkEnvironment {
+
+    /**
+     * Seed for all random benchmark datasets.
+     */
+    public static final long SEED = 42;
+
+    private final BenchmarkService service;
+    private final BenchmarkSession session;
+    private final UI ui;
+    private final Map<Class<?>, CurrentInstance> previousInstances;
+
+    /**
+     * Creates a new environment in production mode.
+     */
+    public BenchmarkEnvironment() {
+        this(new Properties());
+    }
+
+    /**
+     * Creates a new environment in production mode with the given additional
+     * init parameters.
+     *
+     * @param initParameters
+     *            init parameters of the deployment configuration
+     */
+    public BenchmarkEnvironment(Properties initParameters) {
+        Properties parameters = new Properties();
+        parameters.setProperty(InitParameters.SERVLET_PARAMETER_PRODUCTION_MODE,
+                Boolean.TRUE.toString());
+        parameters.putAll(initParameters);
+
+        DeploymentConfiguration configuration = new DefaultDeploymentConfiguration(
+                BenchmarkEnvironment.class, parameters);
+
+        service = new BenchmarkService(configuration);
+        try {
+            service.init();
+        } catch (ServiceException e) {
+            throw new IllegalStateException(e);
+        }
+
+        session = new BenchmarkSession(service);
+        session.lock();
+        session.setConfiguration(configuration);
+
+        ui = new UI();
+        ui.getInternals().setSession(session);
+
+        previousInstances = CurrentInstance.setCurrent(ui);
+    }
+
+    /**
+     * Gets the service of this environment.
+     *
+     * @return the service
+     */
+    public VaadinService getService() {
+        return service;
+    }
+
+    /**
+     * Gets the session of this environment. The session is locked by the
+     * thread that created the environment.
+     *
+     * @return the session
+     */
+    public VaadinSession getSession() {
+        return session;
+    }
+
+    /**
+     * Gets the UI of this environment.
+     *
+     * @return the UI
+     */
+    public UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Creates a request that only provides the service of this environment.
+     *
+     * @return a request instance
+     */
+    public VaadinRequest createRequest() {
+        return (VaadinRequest) Proxy.newProxyInstance(
+                VaadinRequest.class.getClassLoader(),
+                new Class<?>[] { VaadinRequest.class },
+                (proxy, method, args) -> "getService".equals(method.getName())
+                        ? service
+                        : null);
+    }
+
+    /**
+     * Adds a tree of <code>div</code> elements to the UI, with the given
+     * number of children per element.
+     *
+     * @param count
+     *            the number of elements to add
+     * @param childrenPerElement
+     *            the number of children of each non-leaf element
+     * @return the added elements, in the order they were created
+     */
+    public List<Element> addElementTree(int count, int childrenPerElement) {
+        List<Element> elements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Element element = new Element("div");
+            element.setAttribute("id", "element-" + i);
+            Element parent = i == 0 ? ui.getElement()
+                    : elements.get((i - 1) / childrenPerElement);
+            parent.appendChild(element);
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    /**
+     * Collects and discards all pending changes of the UI.
+     */
+    public void discardChanges() {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+        ui.getInternals().dumpPendingJavaScriptInvocations();
+    }
+
+    /**
+     * Creates a random generator for a benchmark dataset.
+     *
+     * @return a random generator seeded with {@link #SEED}
+     */
+    public static Random createRandom() {
+        return new Random(SEED);
+    }
+
+    /**
+     * Releases the session lock and the current instances.
+     */
+    public void close() {
+        session.unlock();
+        CurrentInstance.restoreInstances(previousInstances);
+        service.destroy();
+    }
+
+    private static class BenchmarkSession extends VaadinSession {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private BenchmarkSession(VaadinService service) {
+            super(service);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+    }
+
+    private static class BenchmarkContext implements VaadinContext {
+        private final Map<Class<?>, Object> attributes = new ConcurrentHashMap<>();
+
+        @Override
+        public <T> T getAttribute(Class<T> type,
+                Supplier<T> defaultValueSupplier) {
+            if (defaultValueSupplier == null) {
+                return type.cast(attributes.get(type));
+            }
+            return type.cast(attributes.computeIfAbsent(type,
+                    key -> defaultValueSupplier.get()));
+        }
+
+        @Override
+        public <T> void setAttribute(Class<T> clazz, T value) {
+            if (value == null) {
+                attributes.remove(clazz);
+            } else {
+                attributes.put(clazz, value);
+            }
+        }
+
+        @Override
+        public void removeAttribute(Class<?> clazz) {
+            attributes.remove(clazz);
+        }
+
+        @Override
+        public Enumeration<String> getContextParameterNames() {
+            return Collections.emptyEnumeration();
+        }
+
+        @Override
+        public String getContextParameter(String name) {
+            return null;
+        }
+    }
+
+    private static class BenchmarkService extends VaadinService {
+
+        private BenchmarkService(DeploymentConfiguration configuration) {
+            super(configuration);
+        }
+
+        @Override
+        protected RouteRegistry getRouteRegistry() {
+            return ApplicationRouteRegistry.getInstance(getContext());
+        }
+
+        @Override
+        protected PwaRegistry getPwaRegistry() {
+            return null;
+        }
+
+        @Override
+        public String getContextRootRelativePath(VaadinRequest request) {
+            return "./";
+        }
+
+        @Override
+        public String getMimeType(String resourceName) {
+            return null;
+        }
+
+        @Override
+        protected boolean requestCanCreateSession(VaadinRequest request) {
+            return false;
+        }
+
+        @Override
+        public String getServiceName() {
+            return "benchmark";
+        }
+
+        @Override
+        public String getMainDivId(VaadinSession session,
+                VaadinRequest request) {
+            return "benchmark";
+        }
+
+        @Override
+        public URL getStaticResource(String url) {
+            return null;
+        }
+
+        @Override
+        public URL getResource(String url) {
+            return null;
+        }
+
+        @Override
+        public InputStream getResourceAsStream(String url) {
+            return null;
+        }
+
+        @Override
+        public String resolveResource(String url) {
+            return url;
+        }
+
+        @Override
+        protected VaadinContext constructVaadinContext() {
+            return new BenchmarkContext();
+        }
+    }
+}
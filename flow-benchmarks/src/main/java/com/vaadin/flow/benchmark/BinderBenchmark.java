@@ -0,0 +1,158 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.AbstractField;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.data.binder.Binder;
+import com.vaadin.flow.data.binder.BinderValidationStatus;
+import com.vaadin.flow.data.converter.StringToIntegerConverter;
+import com.vaadin.flow.data.validator.EmailValidator;
+import com.vaadin.flow.data.validator.IntegerRangeValidator;
+import com.vaadin.flow.data.validator.StringLengthValidator;
+
+/**
+ * Measures validating a {@link Binder} with required fields, validators and a
+ * converter.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinderBenchmark {
+
+    /**
+     * A minimal text field.
+     */
+    @Tag("input")
+    public static class TextField extends AbstractField<TextField, String> {
+
+        /**
+         * Creates a new text field with an empty value.
+         */
+        public TextField() {
+            super("");
+        }
+
+        @Override
+        protected void setPresentationValue(String newPresentationValue) {
+            // Values are only set from the server side
+        }
+    }
+
+    /**
+     * The bound bean.
+     */
+    public static class Person implements Serializable {
+        private String name;
+        private String email;
+        private int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getEmail() {
+            return email;
+        }
+
+        public void setEmail(String email) {
+            this.email = email;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+
+    private BenchmarkEnvironment environment;
+
+    private Binder<Person> binder;
+
+    private Person person;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+
+        TextField name = new TextField();
+        TextField email = new TextField();
+        TextField age = new TextField();
+
+        binder = new Binder<>();
+        binder.forField(name).asRequired("Name is required")
+                .withValidator(new StringLengthValidator(
+                        "Name must be 2-50 characters", 2, 50))
+                .bind(Person::getName, Person::setName);
+        binder.forField(email).asRequired("Email is required")
+                .withValidator(new EmailValidator("Invalid email"))
+                .bind(Person::getEmail, Person::setEmail);
+        binder.forField(age)
+                .withConverter(new StringToIntegerConverter("Not a number"))
+                .withValidator(
+                        new IntegerRangeValidator("Invalid age", 0, 150))
+                .bind(Person::getAge, Person::setAge);
+
+        person = new Person();
+        person.setName("Jane Doe");
+        person.setEmail("jane.doe@example.com");
+        person.setAge(42);
+        binder.readBean(person);
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public BinderValidationStatus<Person> validate() {
+        return binder.validate();
+    }
+
+    @Benchmark
+    public boolean writeBeanIfValid() {
+        return binder.writeBeanIfValid(person);
+    }
+}
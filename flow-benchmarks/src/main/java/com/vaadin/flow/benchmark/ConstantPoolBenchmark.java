@@ -0,0 +1,106 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.internal.ConstantPool;
+import com.vaadin.flow.internal.ConstantPoolKey;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
+
+/**
+ * Measures {@link ConstantPool#getConstantId(ConstantPoolKey)} for event
+ * listener settings, with keys that are created for each lookup, interned
+ * with {@link ConstantPoolKey#of(JsonValue)} or reused.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstantPoolBenchmark {
+
+    private static final int VALUE_COUNT = 100;
+
+    private JsonValue[] values;
+
+    private ConstantPoolKey[] keys;
+
+    @Setup
+    public void setup() {
+        Random random = BenchmarkEnvironment.createRandom();
+        values = new JsonValue[VALUE_COUNT];
+        keys = new ConstantPoolKey[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            JsonObject settings = Json.createObject();
+            JsonArray filters = Json.createArray();
+            filters.set(0, "event.key === '" + (char) ('a' + i % 26) + "'");
+            settings.put("event.filter-" + random.nextInt(1000), filters);
+            settings.put("event.debounce", random.nextInt(500));
+            values[i] = settings;
+            keys[i] = new ConstantPoolKey(settings);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void newKeys(Blackhole blackhole) {
+        ConstantPool pool = new ConstantPool();
+        for (JsonValue value : values) {
+            blackhole.consume(pool.getConstantId(new ConstantPoolKey(value)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void internedKeys(Blackhole blackhole) {
+        ConstantPool pool = new ConstantPool();
+        for (JsonValue value : values) {
+            blackhole.consume(pool.getConstantId(ConstantPoolKey.of(value)));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void existingKeys(Blackhole blackhole) {
+        ConstantPool pool = new ConstantPool();
+        for (ConstantPoolKey key : keys) {
+            blackhole.consume(pool.getConstantId(key));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.provider.ArrayUpdater;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataGenerator;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+import elemental.json.JsonValue;
+
+/**
+ * Measures {@link DataCommunicator} flushes when the client scrolls to random
+ * positions of an in-memory data set.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataCommunicatorBenchmark {
+
+    @Param({ "10000", "1000000" })
+    private int itemCount;
+
+    @Param({ "50" })
+    private int pageSize;
+
+    private BenchmarkEnvironment environment;
+
+    private DataCommunicator<String> dataCommunicator;
+
+    private StateTree stateTree;
+
+    private Random random;
+
+    private int lastUpdateId;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        Element element = environment.addElementTree(1, 1).get(0);
+        stateTree = environment.getUI().getInternals().getStateTree();
+        random = BenchmarkEnvironment.createRandom();
+
+        List<String> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add("item-" + random.nextInt());
+        }
+
+        DataGenerator<String> dataGenerator = (item, json) -> json
+                .put("name", item);
+        dataCommunicator = new DataCommunicator<>(dataGenerator,
+                new BenchmarkArrayUpdater(), data -> {
+                }, element.getNode());
+        dataCommunicator.setDataProvider(new ListDataProvider<>(items), null);
+        environment.discardChanges();
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public int flush() {
+        dataCommunicator.setRequestedRange(
+                random.nextInt(itemCount - pageSize), pageSize);
+        stateTree.runExecutionsBeforeClientResponse();
+        dataCommunicator.confirmUpdate(lastUpdateId);
+        return lastUpdateId;
+    }
+
+    private class BenchmarkArrayUpdater implements ArrayUpdater {
+
+        @Override
+        public Update startUpdate(int sizeChange) {
+            return new Update() {
+                @Override
+                public void clear(int start, int length) {
+                    // Nothing to send
+                }
+
+                @Override
+                public void set(int start, List<JsonValue> items) {
+                    // Nothing to send
+                }
+
+                @Override
+                public void commit(int updateId) {
+                    lastUpdateId = updateId;
+                }
+            };
+        }
+
+        @Override
+        public void initialize() {
+            // Nothing to initialize
+        }
+    }
+}
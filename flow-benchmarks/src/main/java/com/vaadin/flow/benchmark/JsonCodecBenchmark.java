@@ -0,0 +1,114 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.JsonCodec;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Measures {@link JsonCodec#encodeWithTypeInfo(Object)} for a mix of values
+ * typically passed as JavaScript invocation parameters.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+
+    private static final int VALUE_COUNT = 1000;
+
+    private BenchmarkEnvironment environment;
+
+    private Object[] values;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        List<Element> elements = environment.addElementTree(10, 10);
+
+        Random random = BenchmarkEnvironment.createRandom();
+        values = new Object[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = createValue(random, elements);
+        }
+    }
+
+    private static Object createValue(Random random, List<Element> elements) {
+        switch (random.nextInt(7)) {
+        case 0:
+            return "value-" + random.nextInt();
+        case 1:
+            return random.nextInt();
+        case 2:
+            return random.nextDouble();
+        case 3:
+            return random.nextBoolean();
+        case 4:
+            JsonObject object = Json.createObject();
+            object.put("name", "item-" + random.nextInt(100));
+            object.put("index", random.nextInt(100));
+            return object;
+        case 5:
+            JsonArray array = Json.createArray();
+            for (int i = 0; i < 5; i++) {
+                array.set(i, random.nextInt(100));
+            }
+            return array;
+        default:
+            return elements.get(random.nextInt(elements.size()));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VALUE_COUNT)
+    public void encodeWithTypeInfo(Blackhole blackhole) {
+        for (Object value : values) {
+            blackhole.consume(JsonCodec.encodeWithTypeInfo(value));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.router.Location;
+import com.vaadin.flow.router.RouteConfiguration;
+import com.vaadin.flow.router.Router;
+import com.vaadin.flow.router.internal.DefaultRouteResolver;
+import com.vaadin.flow.router.internal.ResolveRequest;
+import com.vaadin.flow.server.startup.ApplicationRouteRegistry;
+
+/**
+ * Measures resolving paths with {@link DefaultRouteResolver} against a
+ * registry with static routes and routes with parameters. About one in ten
+ * resolved paths has no matching route.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteResolverBenchmark {
+
+    private static final int PATH_COUNT = 1000;
+
+    /**
+     * Target of static routes.
+     */
+    @Tag("div")
+    public static class StaticView extends Component {
+    }
+
+    /**
+     * Target of routes with a parameter.
+     */
+    @Tag("div")
+    public static class ItemView extends Component {
+    }
+
+    @Param({ "100", "1000" })
+    private int sectionCount;
+
+    private BenchmarkEnvironment environment;
+
+    private Router router;
+
+    private DefaultRouteResolver resolver;
+
+    private String[] paths;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        ApplicationRouteRegistry registry = ApplicationRouteRegistry
+                .getInstance(environment.getService().getContext());
+        RouteConfiguration.forRegistry(registry).update(() -> {
+            RouteConfiguration configuration = RouteConfiguration
+                    .forRegistry(registry);
+            for (int i = 0; i < sectionCount; i++) {
+                configuration.setRoute("section" + i, StaticView.class);
+                configuration.setRoute("section" + i + "/item/:id",
+                        ItemView.class);
+            }
+        });
+        router = new Router(registry);
+        resolver = new DefaultRouteResolver();
+
+        Random random = BenchmarkEnvironment.createRandom();
+        paths = new String[PATH_COUNT];
+        for (int i = 0; i < PATH_COUNT; i++) {
+            int section = random.nextInt(sectionCount);
+            int kind = random.nextInt(10);
+            if (kind == 0) {
+                paths[i] = "missing" + section;
+            } else if (kind < 5) {
+                paths[i] = "section" + section;
+            } else {
+                paths[i] = "section" + section + "/item/" + random.nextInt();
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PATH_COUNT)
+    public void resolve(Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(resolver
+                    .resolve(new ResolveRequest(router, new Location(path))));
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.provider.ArrayUpdater;
+import com.vaadin.flow.data.provider.DataCommunicator;
+import com.vaadin.flow.data.provider.DataGenerator;
+import com.vaadin.flow.data.provider.KeyMapper;
+import com.vaadin.flow.data.provider.ListDataProvider;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+import elemental.json.JsonValue;
+
+/**
+ * Measures a long scrolling session of a grid-like component: the client
+ * scrolls through a large data set a quarter page at a time and confirms the
+ * updates only every few round trips, or never.
+ * <p>
+ * Run with <code>-prof gc</code> to see the allocations and the garbage
+ * collection activity per step. The memory held by the session is bounded by
+ * the key mapper of the data communicator and its passivated items.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class ScrollingSessionBenchmark {
+
+    @Param({ "1000000" })
+    private int itemCount;
+
+    @Param({ "200" })
+    private int pageSize;
+
+    /**
+     * Number of round trips between update confirmations, <code>0</code> to
+     * never confirm.
+     */
+    @Param({ "1", "10", "0" })
+    private int confirmInterval;
+
+    private BenchmarkEnvironment environment;
+
+    private DataCommunicator<String> dataCommunicator;
+
+    private KeyMapper<String> keyMapper;
+
+    private List<String> items;
+
+    private StateTree stateTree;
+
+    private int position;
+
+    private int roundTrips;
+
+    private int lastUpdateId;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        Element element = environment.addElementTree(1, 1).get(0);
+        stateTree = environment.getUI().getInternals().getStateTree();
+
+        items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++) {
+            items.add("item-" + i);
+        }
+
+        DataGenerator<String> dataGenerator = (item, json) -> json
+                .put("name", item);
+        dataCommunicator = new DataCommunicator<>(dataGenerator,
+                new BenchmarkArrayUpdater(), data -> {
+                }, element.getNode());
+        dataCommunicator.setDataProvider(new ListDataProvider<>(items), null);
+        environment.discardChanges();
+
+        keyMapper = new KeyMapper<>();
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public int scroll() {
+        position = (position + pageSize / 4) % (itemCount - pageSize);
+        dataCommunicator.setRequestedRange(position, pageSize);
+        stateTree.runExecutionsBeforeClientResponse();
+
+        roundTrips++;
+        if (confirmInterval > 0 && roundTrips % confirmInterval == 0) {
+            dataCommunicator.confirmUpdate(lastUpdateId);
+        }
+        return lastUpdateId;
+    }
+
+    /**
+     * Key mapper churn of the same scrolling pattern without the data
+     * communicator: keys are created for the rows scrolled into view and the
+     * rows scrolled out of view are removed.
+     */
+    @Benchmark
+    public String keyChurn() {
+        int step = pageSize / 4;
+        int next = (position + step) % (itemCount - pageSize);
+        String key = null;
+        for (int i = 0; i < step; i++) {
+            keyMapper.remove(items.get(position + i));
+            key = keyMapper.key(items.get(next + pageSize - step + i));
+        }
+        position = next;
+        return keyMapper.get(key);
+    }
+
+    private class BenchmarkArrayUpdater implements ArrayUpdater {
+
+        @Override
+        public Update startUpdate(int sizeChange) {
+            return new Update() {
+                @Override
+                public void clear(int start, int length) {
+                    // Nothing to send
+                }
+
+                @Override
+                public void set(int start, List<JsonValue> items) {
+                    // Nothing to send
+                }
+
+                @Override
+                public void commit(int updateId) {
+                    lastUpdateId = updateId;
+                }
+            };
+        }
+
+        @Override
+        public void initialize() {
+            // Nothing to initialize
+        }
+    }
+}
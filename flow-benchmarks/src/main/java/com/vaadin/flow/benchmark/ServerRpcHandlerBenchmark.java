@@ -0,0 +1,122 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.NodeFeatureRegistry;
+import com.vaadin.flow.server.communication.ServerRpcHandler;
+import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
+
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+
+/**
+ * Measures {@link ServerRpcHandler#handleRpc} for a message that synchronizes
+ * a property of a number of elements.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServerRpcHandlerBenchmark {
+
+    @Param({ "1", "100" })
+    private int invocationCount;
+
+    private BenchmarkEnvironment environment;
+
+    private List<Element> elements;
+
+    private ServerRpcHandler rpcHandler;
+
+    private int round;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        elements = environment.addElementTree(invocationCount, 10);
+        elements.forEach(element -> element
+                .addPropertyChangeListener("value", "change", event -> {
+                }));
+        environment.discardChanges();
+        rpcHandler = new ServerRpcHandler();
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public void handleRpc() throws Exception {
+        UI ui = environment.getUI();
+        rpcHandler.handleRpc(ui, new StringReader(createMessage(ui)),
+                environment.createRequest());
+        environment.discardChanges();
+    }
+
+    private String createMessage(UI ui) {
+        round++;
+        int feature = NodeFeatureRegistry.getId(ElementPropertyMap.class);
+
+        JsonArray invocations = Json.createArray();
+        for (Element element : elements) {
+            JsonObject invocation = Json.createObject();
+            invocation.put(JsonConstants.RPC_TYPE,
+                    JsonConstants.RPC_TYPE_MAP_SYNC);
+            invocation.put(JsonConstants.RPC_NODE, element.getNode().getId());
+            invocation.put(JsonConstants.RPC_FEATURE, feature);
+            invocation.put(JsonConstants.RPC_PROPERTY, "value");
+            invocation.put(JsonConstants.RPC_PROPERTY_VALUE, "value-" + round);
+            invocations.set(invocations.length(), invocation);
+        }
+
+        JsonObject message = Json.createObject();
+        message.put(ApplicationConstants.CSRF_TOKEN, ui.getCsrfToken());
+        message.put(ApplicationConstants.SERVER_SYNC_ID,
+                ui.getInternals().getServerSyncId());
+        message.put(ApplicationConstants.CLIENT_TO_SERVER_ID,
+                ui.getInternals().getLastProcessedClientToServerId() + 1);
+        message.put(ApplicationConstants.RPC_INVOCATIONS, invocations);
+        return message.toJson();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.internal.StateTree;
+
+/**
+ * Measures {@link StateTree#collectChanges} after changing a property of a
+ * number of randomly chosen elements in a tree.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StateTreeBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int elementCount;
+
+    @Param({ "10", "1000" })
+    private int changedElementCount;
+
+    private BenchmarkEnvironment environment;
+
+    private StateTree stateTree;
+
+    private Element[] changedElements;
+
+    private int round;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        List<Element> elements = environment.addElementTree(elementCount, 10);
+        environment.discardChanges();
+
+        stateTree = environment.getUI().getInternals().getStateTree();
+
+        Random random = BenchmarkEnvironment.createRandom();
+        changedElements = new Element[changedElementCount];
+        for (int i = 0; i < changedElementCount; i++) {
+            changedElements[i] = elements.get(random.nextInt(elementCount));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public void collectChanges(Blackhole blackhole) {
+        round++;
+        for (Element element : changedElements) {
+            element.setProperty("value", round);
+        }
+        stateTree.collectChanges(blackhole::consume);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.data.provider.hierarchy.TreeData;
+
+/**
+ * Measures loading a large {@link TreeData} from a list of items with parent
+ * references, either parents first one item at a time or in a single pass in
+ * random order. Run with <code>-prof gc</code> to compare the allocations.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TreeDataBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int itemCount;
+
+    private Integer[] items;
+
+    // Parent of each item, always an item with a smaller index
+    private Integer[] parents;
+
+    private Integer[] shuffledItems;
+
+    @Setup
+    public void setup() {
+        Random random = BenchmarkEnvironment.createRandom();
+        items = new Integer[itemCount];
+        parents = new Integer[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            items[i] = Integer.valueOf(i);
+            // Roughly ten children per parent
+            parents[i] = i < 10 ? null : items[random.nextInt(i / 10 + 1)];
+        }
+
+        shuffledItems = items.clone();
+        for (int i = itemCount - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            Integer swap = shuffledItems[i];
+            shuffledItems[i] = shuffledItems[j];
+            shuffledItems[j] = swap;
+        }
+    }
+
+    @Benchmark
+    public TreeData<Integer> addItem() {
+        TreeData<Integer> treeData = new TreeData<>();
+        for (Integer item : items) {
+            treeData.addItem(parents[item.intValue()], item);
+        }
+        return treeData;
+    }
+
+    @Benchmark
+    public TreeData<Integer> addItemsByParent() {
+        return new TreeData<Integer>().addItemsByParent(
+                Arrays.stream(shuffledItems),
+                item -> parents[item.intValue()]);
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.dom.Element;
+import com.vaadin.flow.server.communication.UidlWriter;
+
+import elemental.json.JsonObject;
+
+/**
+ * Compares building a response as a JSON tree with
+ * {@link UidlWriter#createUidl(UI, boolean)} to streaming it with
+ * {@link UidlWriter#writeUidl(UI, java.io.Writer, boolean, boolean)}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UidlWriterBenchmark {
+
+    @Param({ "100", "5000", "10000" })
+    private int changedElementCount;
+
+    private BenchmarkEnvironment environment;
+
+    private List<Element> elements;
+
+    private UidlWriter uidlWriter;
+
+    private int round;
+
+    @Setup
+    public void setup() {
+        environment = new BenchmarkEnvironment();
+        elements = environment.addElementTree(changedElementCount, 10);
+        environment.discardChanges();
+        uidlWriter = new UidlWriter();
+    }
+
+    @TearDown
+    public void tearDown() {
+        environment.close();
+    }
+
+    @Benchmark
+    public JsonObject createUidl() {
+        changeElements();
+        return uidlWriter.createUidl(environment.getUI(), false);
+    }
+
+    @Benchmark
+    public String writeUidl() throws IOException {
+        changeElements();
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(environment.getUI(), writer, false, false);
+        return writer.toString();
+    }
+
+    private void changeElements() {
+        round++;
+        for (Element element : elements) {
+            element.setProperty("value", "value-" + round);
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -37,6 +38,10 @@ public abstract class AbstractComponentDataGenerator<T>
 
     private final Map<String, Component> renderedComponents = new HashMap<>();
 
+    // Components of destroyed items that are kept attached for reuse
+    private final ArrayDeque<Component> componentPool = new ArrayDeque<>();
+    private int componentPoolSize = 0;
+
     @Override
     public void refreshData(T item) {
         String itemKey = getItemKey(item);
@@ -58,7 +63,11 @@ public abstract class AbstractComponentDataGenerator<T>
         String itemKey = getItemKey(item);
         Component renderedComponent = renderedComponents.remove(itemKey);
         if (renderedComponent != null) {
-            renderedComponent.getElement().removeFromParent();
+            if (componentPool.size() < componentPoolSize) {
+                componentPool.push(renderedComponent);
+            } else {
+                renderedComponent.getElement().removeFromParent();
+            }
         }
     }
 
@@ -67,6 +76,45 @@ public abstract class AbstractComponentDataGenerator<T>
         renderedComponents.values().forEach(
                 component -> component.getElement().removeFromParent());
         renderedComponents.clear();
+        clearComponentPool();
+    }
+
+    /**
+     * Sets the maximum number of components of destroyed items that are kept
+     * for rendering other items. A pooled component stays attached to the
+     * container and is passed to {@link #updateComponent(Component, Object)}
+     * when a component is needed for a new item, so scrolling doesn't need to
+     * create, attach and detach components for every row. This only avoids
+     * the churn if the update reuses the given component instance, e.g. when
+     * a {@link com.vaadin.flow.data.renderer.ComponentRenderer} has an update
+     * function that does so.
+     * <p>
+     * Pooling is disabled by default.
+     *
+     * @param componentPoolSize
+     *            the maximum number of pooled components, <code>0</code> to
+     *            disable pooling
+     */
+    public void setComponentPoolSize(int componentPoolSize) {
+        if (componentPoolSize < 0) {
+            throw new IllegalArgumentException(
+                    "Component pool size cannot be negative");
+        }
+        this.componentPoolSize = componentPoolSize;
+        while (componentPool.size() > componentPoolSize) {
+            componentPool.pop().getElement().removeFromParent();
+        }
+    }
+
+    /**
+     * Gets the maximum number of components of destroyed items that are kept
+     * for rendering other items.
+     *
+     * @return the maximum number of pooled components, <code>0</code> if
+     *         pooling is disabled
+     */
+    public int getComponentPoolSize() {
+        return componentPoolSize;
     }
 
     /**
@@ -125,10 +173,42 @@ public abstract class AbstractComponentDataGenerator<T>
             Component component) {
 
         Element element = component.getElement();
-        getContainer().appendChild(element);
+        // Pooled components are already attached to the container
+        if (!getContainer().equals(element.getParent())) {
+            getContainer().appendChild(element);
+        }
         renderedComponents.put(itemKey, component);
     }
 
+    /**
+     * Gets a component for a new item, by updating a pooled component if
+     * there is one, or by creating a new component otherwise. The returned
+     * component must be registered with
+     * {@link #registerRenderedComponent(String, Component)}.
+     *
+     * @param item
+     *            the data item, possibly <code>null</code>
+     * @return a {@link Component} which represents the provided item
+     * @see #setComponentPoolSize(int)
+     */
+    protected Component createOrReuseComponent(T item) {
+        Component pooledComponent = componentPool.poll();
+        if (pooledComponent == null) {
+            return createComponent(item);
+        }
+        Component component = updateComponent(pooledComponent, item);
+        if (component != pooledComponent) {
+            pooledComponent.getElement().removeFromParent();
+        }
+        return component;
+    }
+
+    private void clearComponentPool() {
+        componentPool.forEach(
+                component -> component.getElement().removeFromParent());
+        componentPool.clear();
+    }
+
     protected Component getRenderedComponent(String itemKey) {
         return renderedComponents.get(itemKey);
     }
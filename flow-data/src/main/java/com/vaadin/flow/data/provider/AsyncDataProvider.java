@@ -0,0 +1,93 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.stream.Stream;
+
+/**
+ * A data provider that fetches items and counts them asynchronously.
+ * <p>
+ * Data communicators query an asynchronous data provider without holding the
+ * session lock while waiting for the results, and update the client once the
+ * results arrive. Since the results are applied using
+ * {@link com.vaadin.flow.component.UI#access(com.vaadin.flow.server.Command)},
+ * server push or polling should be enabled for them to be sent to the client
+ * without waiting for the next request.
+ * <p>
+ * The returned stages are typically completed by another thread, for instance
+ * by using {@link java.util.concurrent.CompletableFuture#supplyAsync} with an
+ * executor dedicated to backend calls.
+ *
+ * @author Vaadin Ltd
+ * @since
+ *
+ * @param <T>
+ *            data type
+ * @param <F>
+ *            filter type
+ *
+ * @see AsyncCallbackDataProvider
+ */
+public interface AsyncDataProvider<T, F> extends DataProvider<T, F> {
+
+    /**
+     * Fetches the items matching the given query.
+     *
+     * @param query
+     *            the query that defines which items to fetch
+     * @return a stage completed with the list of items
+     */
+    CompletionStage<List<T>> fetchAsync(Query<T, F> query);
+
+    /**
+     * Counts the items matching the given query.
+     *
+     * @param query
+     *            the query that defines which items to count
+     * @return a stage completed with the number of items
+     */
+    CompletionStage<Integer> sizeAsync(Query<T, F> query);
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Blocks until the result of {@link #sizeAsync(Query)} is available.
+     */
+    @Override
+    default int size(Query<T, F> query) {
+        return sizeAsync(query).toCompletableFuture().join();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Blocks until the result of {@link #fetchAsync(Query)} is available.
+     */
+    @Override
+    default Stream<T> fetch(Query<T, F> query) {
+        // Mark offset and limit as used on behalf of the async query
+        query.getOffset();
+        query.getLimit();
+        return fetchAsync(query).toCompletableFuture().join().stream();
+    }
+
+    @Override
+    default boolean isInMemory() {
+        return false;
+    }
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.vaadin.flow.shared.Registration;
+
+/**
+ * A back end data provider that caches the results of the queries of another
+ * back end data provider. When the same instance is used by many sessions,
+ * e.g. for showing the same catalog to all users, identical queries are only
+ * sent to the back end once, including concurrent ones.
+ * <p>
+ * Queries are considered identical if their offset, limit, sort orders and
+ * filter are equal, so the filters should implement
+ * {@link Object#equals(Object)} and {@link Object#hashCode()}. The in-memory
+ * sorting of the query is not used by back end data providers and is
+ * ignored.
+ * <p>
+ * The cached results are discarded when the wrapped data provider notifies
+ * its listeners about changed data, e.g. when {@link #refreshAll()} or
+ * {@link #refreshItem(Object)} is called, and when the default sort orders
+ * are changed. Results are also evicted when the cache exceeds its
+ * {@link #setMaximumSize(int) maximum size}, least recently used first, and
+ * when they are older than the {@link #setTimeToLive(Duration) time to live}.
+ *
+ * @param <T>
+ *            data provider data type
+ * @param <F>
+ *            data provider filter type
+ * @author Vaadin Ltd
+ * @since
+ */
+public class CachingBackEndDataProvider<T, F>
+        implements BackEndDataProvider<T, F> {
+
+    /**
+     * The default maximum number of cached query results.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final BackEndDataProvider<T, F> dataProvider;
+
+    private final Registration dataProviderRegistration;
+
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    // Zero for no expiration
+    private long timeToLiveNanos;
+
+    // Incremented whenever the cached results become outdated
+    private final AtomicLong generation = new AtomicLong();
+
+    // Least recently used first, guarded by itself
+    private transient volatile LinkedHashMap<CacheKey, CacheEntry> cache;
+
+    private static final class CacheKey implements Serializable {
+        private final boolean size;
+        private final int offset;
+        private final int limit;
+        private final List<Object> sortOrders;
+        private final Object filter;
+        private final int hashCode;
+
+        private CacheKey(boolean size, Query<?, ?> query) {
+            this.size = size;
+            offset = query.getOffset();
+            limit = query.getLimit();
+            sortOrders = new ArrayList<>();
+            query.getSortOrders().forEach(order -> {
+                sortOrders.add(order.getSorted());
+                sortOrders.add(order.getDirection());
+            });
+            filter = query.getFilter().orElse(null);
+            hashCode = Objects.hash(Boolean.valueOf(size),
+                    Integer.valueOf(offset), Integer.valueOf(limit),
+                    sortOrders, filter);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey that = (CacheKey) obj;
+            return size == that.size && offset == that.offset
+                    && limit == that.limit
+                    && sortOrders.equals(that.sortOrders)
+                    && Objects.equals(filter, that.filter);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    private static final class CacheEntry implements Serializable {
+        private final long generation;
+        private final long created = System.nanoTime();
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        private CacheEntry(long generation) {
+            this.generation = generation;
+        }
+    }
+
+    /**
+     * Creates a new caching data provider for the given back end data
+     * provider.
+     *
+     * @param dataProvider
+     *            the data provider whose query results to cache, not
+     *            <code>null</code>
+     */
+    public CachingBackEndDataProvider(BackEndDataProvider<T, F> dataProvider) {
+        this.dataProvider = Objects.requireNonNull(dataProvider,
+                "The wrapped data provider cannot be null.");
+        dataProviderRegistration = dataProvider
+                .addDataProviderListener(event -> clear());
+    }
+
+    /**
+     * Sets the maximum number of query results to cache. When the limit is
+     * exceeded, the least recently used results are evicted.
+     *
+     * @param maximumSize
+     *            the maximum number of cached query results, <code>0</code>
+     *            to disable caching
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException(
+                    "Maximum size cannot be negative");
+        }
+        LinkedHashMap<CacheKey, CacheEntry> entries = getCache();
+        synchronized (entries) {
+            this.maximumSize = maximumSize;
+            evictOverflow(entries);
+        }
+    }
+
+    /**
+     * Gets the maximum number of query results to cache.
+     *
+     * @return the maximum number of cached query results
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the time after which a cached query result is no longer used.
+     *
+     * @param timeToLive
+     *            the time to live of cached query results, or
+     *            <code>null</code> to keep results until they are evicted
+     *            or the data is refreshed
+     */
+    public void setTimeToLive(Duration timeToLive) {
+        if (timeToLive != null
+                && (timeToLive.isNegative() || timeToLive.isZero())) {
+            throw new IllegalArgumentException(
+                    "Time to live must be positive");
+        }
+        timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+    }
+
+    /**
+     * Gets the time after which a cached query result is no longer used.
+     *
+     * @return the time to live of cached query results, or <code>null</code>
+     *         if results don't expire
+     */
+    public Duration getTimeToLive() {
+        return timeToLiveNanos == 0 ? null : Duration.ofNanos(timeToLiveNanos);
+    }
+
+    /**
+     * Gets the data provider whose query results are cached.
+     *
+     * @return the wrapped data provider
+     */
+    public BackEndDataProvider<T, F> getDataProvider() {
+        return dataProvider;
+    }
+
+    /**
+     * Discards all cached query results.
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        LinkedHashMap<CacheKey, CacheEntry> entries = getCache();
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * Removes the listener that this data provider has registered to the
+     * wrapped data provider. Should be called when this data provider is no
+     * longer used but the wrapped one is.
+     */
+    public void detach() {
+        dataProviderRegistration.remove();
+        clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Stream<T> fetch(Query<T, F> query) {
+        List<T> items = (List<T>) getResult(new CacheKey(false, query),
+                () -> dataProvider.fetch(query)
+                        .collect(Collectors.toList()));
+        return items.stream();
+    }
+
+    @Override
+    public int size(Query<T, F> query) {
+        return ((Integer) getResult(new CacheKey(true, query),
+                () -> Integer.valueOf(dataProvider.size(query)))).intValue();
+    }
+
+    @Override
+    public void setSortOrders(List<QuerySortOrder> sortOrders) {
+        dataProvider.setSortOrders(sortOrders);
+        clear();
+    }
+
+    @Override
+    public boolean isInMemory() {
+        return dataProvider.isInMemory();
+    }
+
+    @Override
+    public Object getId(T item) {
+        return dataProvider.getId(item);
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        dataProvider.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        dataProvider.refreshItem(item, refreshChildren);
+    }
+
+    @Override
+    public void refreshAll() {
+        dataProvider.refreshAll();
+    }
+
+    @Override
+    public Registration addDataProviderListener(
+            DataProviderListener<T> listener) {
+        return dataProvider.addDataProviderListener(listener);
+    }
+
+    private Object getResult(CacheKey key, Supplier<Object> query) {
+        long currentGeneration = generation.get();
+        LinkedHashMap<CacheKey, CacheEntry> entries = getCache();
+        CacheEntry entry;
+        boolean owner = false;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || isStale(entry, currentGeneration)) {
+                entry = new CacheEntry(currentGeneration);
+                owner = true;
+                if (maximumSize > 0) {
+                    entries.put(key, entry);
+                    evictOverflow(entries);
+                }
+            }
+        }
+
+        if (owner) {
+            try {
+                entry.result.complete(query.get());
+            } catch (RuntimeException | Error e) {
+                entry.result.completeExceptionally(e);
+                synchronized (entries) {
+                    entries.remove(key, entry);
+                }
+                throw e;
+            }
+        }
+
+        try {
+            return entry.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private boolean isStale(CacheEntry entry, long currentGeneration) {
+        if (entry.generation != currentGeneration) {
+            return true;
+        }
+        if (entry.result.isCompletedExceptionally()) {
+            return true;
+        }
+        return timeToLiveNanos != 0
+                && System.nanoTime() - entry.created > timeToLiveNanos;
+    }
+
+    private void evictOverflow(LinkedHashMap<CacheKey, CacheEntry> entries) {
+        Iterator<CacheEntry> leastRecentlyUsed = entries.values().iterator();
+        while (entries.size() > maximumSize && leastRecentlyUsed.hasNext()) {
+            leastRecentlyUsed.next();
+            leastRecentlyUsed.remove();
+        }
+    }
+
+    private LinkedHashMap<CacheKey, CacheEntry> getCache() {
+        LinkedHashMap<CacheKey, CacheEntry> result = cache;
+        if (result == null) {
+            synchronized (this) {
+                if (cache == null) {
+                    cache = new LinkedHashMap<>(16, 0.75f, true);
+                }
+                result = cache;
+            }
+        }
+        return result;
+    }
+}
@@ -75,12 +75,12 @@ public class ComponentDataGenerator<T>
         Component oldRenderedComponent = getRenderedComponent(itemKey);
 
         int nodeId;
-        // If we have a component for the given item use that, else create new
-        // component and register it.
+        // If we have a component for the given item use that, else reuse a
+        // pooled component or create a new one and register it.
         if (oldRenderedComponent != null) {
             nodeId = oldRenderedComponent.getElement().getNode().getId();
         } else {
-            Component renderedComponent = createComponent(item);
+            Component renderedComponent = createOrReuseComponent(item);
             registerRenderedComponent(itemKey, renderedComponent);
 
             nodeId = renderedComponent.getElement().getNode().getId();
@@ -17,13 +17,17 @@ package com.vaadin.flow.data.provider;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -31,14 +35,19 @@ import java.util.stream.Stream;
 
 import org.slf4j.LoggerFactory;
 
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
 import com.vaadin.flow.data.provider.ArrayUpdater.Update;
 import com.vaadin.flow.data.provider.DataChangeEvent.DataRefreshEvent;
 import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.internal.ExecutionContext;
 import com.vaadin.flow.internal.JsonUtils;
 import com.vaadin.flow.internal.Range;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.shared.Registration;
 
 import elemental.json.Json;
@@ -57,6 +66,19 @@ import elemental.json.JsonValue;
  * @since 1.0
  */
 public class DataCommunicator<T> implements Serializable {
+    /**
+     * The default maximum number of items kept in memory for serving
+     * requests without fetching from the data provider.
+     */
+    public static final int DEFAULT_PREFETCH_BUDGET = 500;
+
+    /**
+     * The default number of items by which the estimated size is increased
+     * when the size is not defined and the client reaches the end of the
+     * estimated size.
+     */
+    public static final int DEFAULT_SIZE_ESTIMATE_INCREASE = 200;
+
     private final DataGenerator<T> dataGenerator;
     private final ArrayUpdater arrayUpdater;
     private final SerializableConsumer<JsonArray> dataUpdater;
@@ -82,7 +104,10 @@ public class DataCommunicator<T> implements Serializable {
     private int nextUpdateId = 0;
 
     // Keys that can be discarded once some specific update id gets confirmed
-    private final HashMap<Integer, Set<String>> passivatedByUpdate = new HashMap<>();
+    // in the order of the updates, oldest first
+    private final LinkedHashMap<Integer, Set<String>> passivatedByUpdate = new LinkedHashMap<>();
+    private int passivatedCount = 0;
+    private int passivationLimit = Integer.MAX_VALUE;
 
     // Update ids that have been confirmed since the last flush
     private final HashSet<Integer> confirmedUpdates = new HashSet<>();
@@ -98,9 +123,38 @@ public class DataCommunicator<T> implements Serializable {
     private Registration dataProviderUpdateRegistration;
     private HashSet<T> updatedData = new HashSet<>();
 
+    // Last data sent to the client for each key, when only changed
+    // properties of refreshed items are sent
+    private boolean partialUpdates;
+    private final HashMap<String, JsonObject> sentData = new HashMap<>();
+
     private SerializableConsumer<ExecutionContext> flushRequest;
     private SerializableConsumer<ExecutionContext> flushUpdatedDataRequest;
 
+    // Number of items to fetch beyond the requested range, 0 to disable
+    private int readAhead = 0;
+    private int prefetchBudget = DEFAULT_PREFETCH_BUDGET;
+
+    // Items fetched from the data provider, starting at prefetchStart.
+    // ArrayList or emptyList(), both are serializable
+    private List<T> prefetchedItems = Collections.emptyList();
+    private int prefetchStart = 0;
+
+    // State of queries to an AsyncDataProvider. Results of queries started
+    // before the latest reset are discarded based on the generation.
+    private int asyncGeneration = 0;
+    private int asyncSize = -1;
+    private boolean asyncSizePending;
+    private boolean asyncFetchPending;
+
+    // Undefined size: the size is estimated until the end of the data has
+    // been reached. estimatedSize is -1 until initialized after a reset.
+    private boolean definedSize = true;
+    private SerializableFunction<Query<T, ?>, Integer> sizeEstimateCallback;
+    private int sizeEstimateIncrease = DEFAULT_SIZE_ESTIMATE_INCREASE;
+    private int estimatedSize = -1;
+    private boolean endOfDataReached;
+
     private static class SizeVerifier<T> implements Consumer<T>, Serializable {
 
         private int size;
@@ -173,6 +227,14 @@ public class DataCommunicator<T> implements Serializable {
         resendEntireRange = true;
         dataGenerator.destroyAllData();
         updatedData.clear();
+        sentData.clear();
+        clearPrefetchedItems();
+        asyncGeneration++;
+        asyncSize = -1;
+        asyncSizePending = false;
+        asyncFetchPending = false;
+        estimatedSize = -1;
+        endOfDataReached = false;
         requestFlush();
     }
 
@@ -183,12 +245,71 @@ public class DataCommunicator<T> implements Serializable {
      *            updated data object; not {@code null}
      */
     public void refresh(T data) {
+        doRefresh(data);
+        requestFlushUpdatedData();
+    }
+
+    /**
+     * Informs the DataCommunicator that the given data objects have been
+     * updated. The updated items are sent to the client in one batch before
+     * the response.
+     *
+     * @param data
+     *            updated data objects; not {@code null} and not containing
+     *            {@code null}
+     */
+    public void refreshItems(Collection<T> data) {
+        Objects.requireNonNull(data,
+                "DataCommunicator can not refresh null collection");
+        data.forEach(this::doRefresh);
+        requestFlushUpdatedData();
+    }
+
+    private void doRefresh(T data) {
         Objects.requireNonNull(data,
                 "DataCommunicator can not refresh null object");
         getKeyMapper().refresh(data);
+        refreshPrefetchedItem(data);
         dataGenerator.refreshData(data);
         updatedData.add(data);
-        requestFlushUpdatedData();
+    }
+
+    /**
+     * Sets whether only the changed properties of refreshed items are sent to
+     * the client. When enabled, the data generated for a refreshed item is
+     * compared with the data last sent for it. Only the properties that have
+     * changed, the properties that have been removed as <code>null</code>
+     * values, and the <code>key</code> property are sent. Items without
+     * changes and items that are not on the client are not sent at all.
+     * <p>
+     * This requires that the client-side counterpart of the component merges
+     * the received properties into its existing item instead of replacing
+     * it, and it keeps the last sent data of the items on the client in
+     * memory. Partial updates are disabled by default.
+     *
+     * @param partialUpdates
+     *            <code>true</code> to send only changed properties of
+     *            refreshed items, <code>false</code> to send all properties
+     */
+    public void setPartialUpdates(boolean partialUpdates) {
+        if (this.partialUpdates != partialUpdates) {
+            this.partialUpdates = partialUpdates;
+            sentData.clear();
+            resendEntireRange = true;
+            requestFlush();
+        }
+    }
+
+    /**
+     * Gets whether only the changed properties of refreshed items are sent to
+     * the client.
+     *
+     * @return <code>true</code> if only changed properties are sent,
+     *         <code>false</code> if all properties are sent
+     * @see #setPartialUpdates(boolean)
+     */
+    public boolean isPartialUpdates() {
+        return partialUpdates;
     }
 
     /**
@@ -205,6 +326,194 @@ public class DataCommunicator<T> implements Serializable {
         requestFlush();
     }
 
+    /**
+     * Sets the number of items to fetch from the data provider beyond the
+     * range requested by the client. The additional items are fetched in the
+     * same query as the requested ones, in the direction the client is
+     * scrolling, and kept in memory so that subsequent requests within them
+     * can be served without querying the data provider.
+     * <p>
+     * The prefetched items are discarded whenever the data is
+     * {@link #reset() reset}, e.g. when the data provider, filter or sorting
+     * changes or the data provider notifies about changed data.
+     * <p>
+     * Read-ahead is disabled by default.
+     *
+     * @param readAhead
+     *            the number of items to fetch beyond the requested range, or
+     *            <code>0</code> to only fetch the requested items
+     * @see #setPrefetchBudget(int)
+     */
+    public void setReadAhead(int readAhead) {
+        if (readAhead < 0) {
+            throw new IllegalArgumentException(
+                    "Read-ahead cannot be negative");
+        }
+        this.readAhead = readAhead;
+        clearPrefetchedItems();
+    }
+
+    /**
+     * Gets the number of items fetched from the data provider beyond the
+     * range requested by the client.
+     *
+     * @return the number of items to fetch beyond the requested range,
+     *         <code>0</code> if read-ahead is disabled
+     */
+    public int getReadAhead() {
+        return readAhead;
+    }
+
+    /**
+     * Sets the maximum number of fetched items kept in memory for serving
+     * subsequent requests when {@link #setReadAhead(int) read-ahead} is
+     * enabled. The read-ahead is reduced so that a single query fetches at
+     * most this many items, unless the requested range is larger.
+     *
+     * @param prefetchBudget
+     *            the maximum number of items to keep in memory
+     */
+    public void setPrefetchBudget(int prefetchBudget) {
+        if (prefetchBudget < 0) {
+            throw new IllegalArgumentException(
+                    "Prefetch budget cannot be negative");
+        }
+        this.prefetchBudget = prefetchBudget;
+        clearPrefetchedItems();
+    }
+
+    /**
+     * Gets the maximum number of fetched items kept in memory for serving
+     * subsequent requests.
+     *
+     * @return the maximum number of items to keep in memory
+     */
+    public int getPrefetchBudget() {
+        return prefetchBudget;
+    }
+
+    /**
+     * Sets the maximum number of items kept registered after they have been
+     * removed from the client, while waiting for the client to confirm the
+     * removal. When the limit is exceeded, the items removed in the oldest
+     * unconfirmed updates are unregistered right away, so that the number of
+     * registered items stays bounded even if the client scrolls a long way
+     * without confirming the updates. Items removed in the latest update are
+     * always kept until confirmed.
+     * <p>
+     * There is no limit by default, so all removed items are kept registered
+     * until the client confirms the removal. An item that has been
+     * unregistered early because of the limit can no longer be resolved from
+     * its key if the client refers to it before applying the removal.
+     *
+     * @param passivationLimit
+     *            the maximum number of removed items to keep registered, or
+     *            {@link Integer#MAX_VALUE} for no limit
+     */
+    public void setPassivationLimit(int passivationLimit) {
+        if (passivationLimit < 0) {
+            throw new IllegalArgumentException(
+                    "Passivation limit cannot be negative");
+        }
+        this.passivationLimit = passivationLimit;
+        enforcePassivationLimit();
+    }
+
+    /**
+     * Gets the maximum number of items kept registered after they have been
+     * removed from the client.
+     *
+     * @return the maximum number of removed items to keep registered, or
+     *         {@link Integer#MAX_VALUE} if there is no limit
+     */
+    public int getPassivationLimit() {
+        return passivationLimit;
+    }
+
+    /**
+     * Sets whether the size of the data is defined by querying the data
+     * provider for it.
+     * <p>
+     * When the size is not defined, the data provider is never asked for the
+     * size. Instead, the size sent to the client is an estimate that is
+     * increased by the {@link #setSizeEstimateIncrease(int) estimate increase}
+     * whenever the client requests items at the end of the estimated size.
+     * Once the data provider returns fewer items than requested, the actual
+     * size is known and used until the data is {@link #reset() reset}. The
+     * data provider is only asked for the size if it returns no items at all
+     * for a range starting beyond the end of the data.
+     * <p>
+     * The size is defined by default.
+     *
+     * @param definedSize
+     *            {@code true} to query the data provider for the size,
+     *            {@code false} to estimate the size
+     * @see #setSizeEstimateCallback(SerializableFunction)
+     */
+    public void setDefinedSize(boolean definedSize) {
+        this.definedSize = definedSize;
+        reset();
+    }
+
+    /**
+     * Gets whether the size of the data is defined by querying the data
+     * provider for it.
+     *
+     * @return {@code true} if the data provider is queried for the size,
+     *         {@code false} if the size is estimated
+     */
+    public boolean isDefinedSize() {
+        return definedSize;
+    }
+
+    /**
+     * Sets a callback that provides the initial size estimate when the size
+     * is not {@link #setDefinedSize(boolean) defined}, e.g. based on the
+     * statistics of a database table. The callback is called with a query
+     * containing the current filter whenever the data is reset.
+     * <p>
+     * Without a callback, the initial estimate is the end of the requested
+     * range increased by the {@link #setSizeEstimateIncrease(int) estimate
+     * increase}.
+     *
+     * @param sizeEstimateCallback
+     *            the callback providing the initial size estimate, or
+     *            {@code null} to not use a callback
+     */
+    public void setSizeEstimateCallback(
+            SerializableFunction<Query<T, ?>, Integer> sizeEstimateCallback) {
+        this.sizeEstimateCallback = sizeEstimateCallback;
+        if (!definedSize) {
+            reset();
+        }
+    }
+
+    /**
+     * Sets the number of items by which the estimated size is increased when
+     * the size is not {@link #setDefinedSize(boolean) defined} and the client
+     * requests items at the end of the estimated size.
+     *
+     * @param sizeEstimateIncrease
+     *            the number of items to increase the estimate by, greater
+     *            than zero
+     */
+    public void setSizeEstimateIncrease(int sizeEstimateIncrease) {
+        if (sizeEstimateIncrease <= 0) {
+            throw new IllegalArgumentException(
+                    "Size estimate increase must be greater than zero");
+        }
+        this.sizeEstimateIncrease = sizeEstimateIncrease;
+    }
+
+    /**
+     * Gets the number of items by which the estimated size is increased.
+     *
+     * @return the number of items to increase the estimate by
+     */
+    public int getSizeEstimateIncrease() {
+        return sizeEstimateIncrease;
+    }
+
     /**
      * Gets the current data provider from this DataCommunicator.
      *
@@ -345,6 +654,23 @@ public class DataCommunicator<T> implements Serializable {
         return filter;
     }
 
+    /**
+     * Gets whether items are fetched from the data provider asynchronously,
+     * without holding the session lock while waiting for the results. This is
+     * the case if the data provider is an {@link AsyncDataProvider}.
+     * <p>
+     * Subclasses that fetch items in some other way than through
+     * {@link #fetchFromProvider(int, int)} and
+     * {@link #getDataProviderSize()} should override this method to return
+     * {@code false}.
+     *
+     * @return {@code true} if items are fetched asynchronously, {@code false}
+     *         otherwise
+     */
+    protected boolean isFetchedAsynchronously() {
+        return getDataProvider() instanceof AsyncDataProvider;
+    }
+
     /**
      * Fetches a list of items from the DataProvider.
      *
@@ -442,6 +768,11 @@ public class DataCommunicator<T> implements Serializable {
     }
 
     private void flush() {
+        if (isFetchedAsynchronously() && !isAsyncDataAvailable()) {
+            // Flushed again once the pending results arrive
+            return;
+        }
+
         Set<String> oldActive = new HashSet<>(activeKeyOrder);
 
         Range effectiveRequested;
@@ -449,8 +780,10 @@ public class DataCommunicator<T> implements Serializable {
                 activeKeyOrder.size());
 
         // Phase 1: Find all items that the client should have
-        if (resendEntireRange) {
-            assumedSize = getDataProviderSize();
+        if (!definedSize) {
+            assumedSize = getEstimatedSize();
+        } else if (resendEntireRange) {
+            assumedSize = getSize();
         }
         effectiveRequested = requestedRange
                 .restrictTo(Range.withLength(0, assumedSize));
@@ -463,8 +796,20 @@ public class DataCommunicator<T> implements Serializable {
 
         // If the returned stream from the DataProvider is smaller than it
         // should, a new query for the actual size needs to be done
-        if (activation.isSizeRecheckNeeded()) {
-            assumedSize = getDataProviderSize();
+        if (activation.isSizeRecheckNeeded() && !definedSize) {
+            // The end of the data has been reached
+            endOfDataReached = true;
+            int found = activation.getActiveKeys().size();
+            if (found == 0 && effectiveRequested.getStart() > 0) {
+                handleEstimateOvershoot(effectiveRequested.getStart());
+            } else {
+                estimatedSize = effectiveRequested.getStart() + found;
+            }
+            assumedSize = estimatedSize;
+            effectiveRequested = requestedRange
+                    .restrictTo(Range.withLength(0, assumedSize));
+        } else if (activation.isSizeRecheckNeeded()) {
+            assumedSize = getSize();
             effectiveRequested = requestedRange
                     .restrictTo(Range.withLength(0, assumedSize));
         }
@@ -491,8 +836,17 @@ public class DataCommunicator<T> implements Serializable {
         if (updatedData.isEmpty()) {
             return;
         }
-        dataUpdater.accept(updatedData.stream().map(this::generateJson)
-                .collect(JsonUtils.asArray()));
+        if (partialUpdates) {
+            JsonArray changes = updatedData.stream()
+                    .map(this::generateChangedJson).filter(Objects::nonNull)
+                    .collect(JsonUtils.asArray());
+            if (changes.length() > 0) {
+                dataUpdater.accept(changes);
+            }
+        } else {
+            dataUpdater.accept(updatedData.stream().map(this::generateJson)
+                    .collect(JsonUtils.asArray()));
+        }
         updatedData.clear();
     }
 
@@ -510,12 +864,14 @@ public class DataCommunicator<T> implements Serializable {
     private void doUnregister(Integer updateId) {
         Set<String> passivated = passivatedByUpdate.remove(updateId);
         if (passivated != null) {
+            passivatedCount -= passivated.size();
             passivated.forEach(key -> {
                 T item = keyMapper.get(key);
                 if (item != null) {
                     dataGenerator.destroyData(item);
                     keyMapper.remove(item);
                 }
+                sentData.remove(key);
             });
         }
     }
@@ -536,10 +892,19 @@ public class DataCommunicator<T> implements Serializable {
             oldActive.removeAll(activeKeyOrder);
             if (!oldActive.isEmpty()) {
                 passivatedByUpdate.put(Integer.valueOf(updateId), oldActive);
+                passivatedCount += oldActive.size();
+                enforcePassivationLimit();
             }
         }
     }
 
+    private void enforcePassivationLimit() {
+        while (passivatedCount > passivationLimit
+                && passivatedByUpdate.size() > 1) {
+            doUnregister(passivatedByUpdate.keySet().iterator().next());
+        }
+    }
+
     private boolean collectChangesToSend(final Range previousActive,
             final Range effectiveRequested, Update update) {
         boolean updated = false;
@@ -639,14 +1004,23 @@ public class DataCommunicator<T> implements Serializable {
 
         // XXX Explicitly refresh anything that is updated
         List<String> activeKeys = new ArrayList<>(range.length());
-        fetchFromProvider(range.getStart(), range.length()).forEach(bean -> {
+        fetchItems(range).forEach(bean -> {
             boolean mapperHasKey = keyMapper.has(bean);
             String key = keyMapper.key(bean);
             if (mapperHasKey) {
                 // Ensure latest instance from provider is used
                 keyMapper.refresh(bean);
-                passivatedByUpdate.values().stream()
-                        .forEach(set -> set.remove(key));
+                Iterator<Set<String>> passivated = passivatedByUpdate.values()
+                        .iterator();
+                while (passivated.hasNext()) {
+                    Set<String> keys = passivated.next();
+                    if (keys.remove(key)) {
+                        passivatedCount--;
+                        if (keys.isEmpty()) {
+                            passivated.remove();
+                        }
+                    }
+                }
             }
             activeKeys.add(key);
         });
@@ -654,13 +1028,268 @@ public class DataCommunicator<T> implements Serializable {
         return new Activation(activeKeys, needsSizeRecheck);
     }
 
+    private int getSize() {
+        return isFetchedAsynchronously() ? asyncSize : getDataProviderSize();
+    }
+
+    /**
+     * Handles an undefined size estimate that overshot the data: there are no
+     * items from the given index onwards, but the end of the data is not
+     * known. An asynchronous data provider is asked for the size without
+     * blocking, and the data is assumed to end at the given index until the
+     * size arrives.
+     */
+    private void handleEstimateOvershoot(int start) {
+        endOfDataReached = true;
+        if (isFetchedAsynchronously()) {
+            estimatedSize = start;
+            requestAsyncSize();
+        } else {
+            estimatedSize = getDataProviderSize();
+        }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private int getEstimatedSize() {
+        if (estimatedSize < 0) {
+            estimatedSize = 0;
+            if (sizeEstimateCallback != null) {
+                Integer estimate = sizeEstimateCallback
+                        .apply(new Query(getFilter()));
+                estimatedSize = estimate == null ? 0 : Math.max(0, estimate);
+            }
+        }
+        if (!endOfDataReached && requestedRange.getEnd() >= estimatedSize) {
+            estimatedSize = requestedRange.getEnd() + sizeEstimateIncrease;
+        }
+        return estimatedSize;
+    }
+
+    private Stream<T> fetchItems(Range range) {
+        Range prefetched = Range.withLength(prefetchStart,
+                prefetchedItems.size());
+        if (!range.isEmpty() && prefetched.contains(range.getStart())
+                && prefetched.contains(range.getEnd() - 1)) {
+            int from = range.getStart() - prefetchStart;
+            return new ArrayList<>(
+                    prefetchedItems.subList(from, from + range.length()))
+                            .stream();
+        }
+        if (isFetchedAsynchronously()) {
+            // Only the items prepared by isAsyncDataAvailable() are available
+            return Stream.empty();
+        }
+
+        Range fetchRange = getFetchRange(range);
+        if (fetchRange.equals(range)) {
+            clearPrefetchedItems();
+            return fetchFromProvider(range.getStart(), range.length());
+        }
+
+        List<T> items = fetchFromProvider(fetchRange.getStart(),
+                fetchRange.length()).collect(Collectors.toList());
+        prefetchedItems = new ArrayList<>(items);
+        prefetchStart = fetchRange.getStart();
+
+        int from = Math.min(range.getStart() - prefetchStart, items.size());
+        int to = Math.min(from + range.length(), items.size());
+        return items.subList(from, to).stream();
+    }
+
+    /**
+     * Gets the range to fetch for the given requested range, extended by the
+     * read-ahead in the direction the client is scrolling.
+     */
+    private Range getFetchRange(Range range) {
+        int effectiveReadAhead = Math.min(readAhead,
+                Math.max(0, prefetchBudget - range.length()));
+        if (effectiveReadAhead == 0) {
+            return range;
+        }
+        if (!prefetchedItems.isEmpty() && range.getStart() < prefetchStart) {
+            // Scrolling backwards, read ahead before the requested range
+            return Range.between(
+                    Math.max(0, range.getStart() - effectiveReadAhead),
+                    range.getEnd());
+        }
+        return Range.withLength(range.getStart(),
+                range.length() + effectiveReadAhead);
+    }
+
+    /**
+     * Checks whether the size and the items needed for flushing have been
+     * received from the asynchronous data provider, and queries the data
+     * provider for what is missing.
+     *
+     * @return {@code true} if the needed data is available, {@code false} if
+     *         it has been requested
+     */
+    private boolean isAsyncDataAvailable() {
+        int size;
+        if (!definedSize) {
+            size = getEstimatedSize();
+        } else if (asyncSize < 0) {
+            requestAsyncSize();
+            return false;
+        } else {
+            size = asyncSize;
+        }
+        Range needed = requestedRange.restrictTo(Range.withLength(0, size));
+        Range prefetched = Range.withLength(prefetchStart,
+                prefetchedItems.size());
+        if (needed.isEmpty() || (prefetched.contains(needed.getStart())
+                && prefetched.contains(needed.getEnd() - 1))) {
+            return true;
+        }
+        requestAsyncItems(needed);
+        return false;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void requestAsyncSize() {
+        if (asyncSizePending) {
+            return;
+        }
+        asyncSizePending = true;
+        CompletionStage<Integer> stage = ((AsyncDataProvider) getDataProvider())
+                .sizeAsync(new Query(getFilter()));
+        whenAsyncComplete(stage, size -> {
+            asyncSizePending = false;
+            asyncSize = size;
+            if (!definedSize) {
+                estimatedSize = size;
+                endOfDataReached = true;
+            }
+        }, () -> asyncSizePending = false);
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void requestAsyncItems(Range range) {
+        if (asyncFetchPending) {
+            return;
+        }
+        asyncFetchPending = true;
+        Range fetchRange = getFetchRange(range);
+        Query query = new Query(fetchRange.getStart(), fetchRange.length(),
+                backEndSorting, inMemorySorting, filter);
+        CompletionStage<List<T>> stage = ((AsyncDataProvider) getDataProvider())
+                .fetchAsync(query);
+        whenAsyncComplete(stage, items -> {
+            asyncFetchPending = false;
+            prefetchedItems = new ArrayList<>(items);
+            prefetchStart = fetchRange.getStart();
+            if (items.size() < fetchRange.length()) {
+                // Reached the end of the data
+                int size = fetchRange.getStart() + items.size();
+                if (definedSize) {
+                    asyncSize = Math.min(asyncSize, size);
+                } else if (items.isEmpty() && fetchRange.getStart() > 0) {
+                    handleEstimateOvershoot(fetchRange.getStart());
+                } else {
+                    estimatedSize = size;
+                    endOfDataReached = true;
+                }
+            }
+        }, () -> asyncFetchPending = false);
+    }
+
+    /**
+     * Applies the result of an asynchronous query while holding the session
+     * lock, unless the data has been reset after the query was started.
+     */
+    private <R> void whenAsyncComplete(CompletionStage<R> stage,
+            SerializableConsumer<R> resultHandler,
+            Command failureHandler) {
+        UI ui = ((StateTree) stateNode.getOwner()).getUI();
+        int generation = asyncGeneration;
+        stage.whenComplete((result, error) -> {
+            try {
+                ui.access(() -> {
+                    if (generation != asyncGeneration) {
+                        return;
+                    }
+                    if (error != null) {
+                        failureHandler.execute();
+                        throw new IllegalStateException(
+                                "Fetching data from the data provider failed",
+                                error);
+                    }
+                    resultHandler.accept(result);
+                    requestFlush();
+                });
+            } catch (UIDetachedException e) {
+                // Fetched again when attached
+                LoggerFactory.getLogger(DataCommunicator.class).debug(
+                        "Discarding data fetched for a detached UI", e);
+            }
+        });
+    }
+
+    private void refreshPrefetchedItem(T item) {
+        Object id = getDataProvider().getId(item);
+        prefetchedItems.replaceAll(prefetched -> Objects
+                .equals(getDataProvider().getId(prefetched), id) ? item
+                        : prefetched);
+    }
+
+    private void clearPrefetchedItems() {
+        prefetchedItems = Collections.emptyList();
+        prefetchStart = 0;
+    }
+
     private JsonValue generateJson(T item) {
         JsonObject json = Json.createObject();
-        json.put("key", getKeyMapper().key(item));
+        String key = getKeyMapper().key(item);
+        json.put("key", key);
         dataGenerator.generateData(item, json);
+        if (partialUpdates) {
+            sentData.put(key, json);
+        }
         return json;
     }
 
+    /**
+     * Generates the data of a refreshed item and returns the properties that
+     * differ from the data last sent for the item.
+     *
+     * @return the changed properties and the key, or <code>null</code> if
+     *         nothing has changed or the item is not on the client
+     */
+    private JsonObject generateChangedJson(T item) {
+        if (!getKeyMapper().has(item)) {
+            return null;
+        }
+        String key = getKeyMapper().key(item);
+        JsonObject previous = sentData.get(key);
+        if (previous == null) {
+            return (JsonObject) generateJson(item);
+        }
+
+        JsonObject json = Json.createObject();
+        json.put("key", key);
+        dataGenerator.generateData(item, json);
+        sentData.put(key, json);
+
+        JsonObject changes = Json.createObject();
+        for (String property : json.keys()) {
+            JsonValue value = json.get(property);
+            if (!previous.hasKey(property)
+                    || !JsonUtils.jsonEquals(previous.get(property), value)) {
+                changes.put(property, value);
+            }
+        }
+        for (String property : previous.keys()) {
+            if (!json.hasKey(property)) {
+                changes.put(property, Json.createNull());
+            }
+        }
+        if (changes.keys().length == 0) {
+            return null;
+        }
+        changes.put("key", key);
+        return changes;
+    }
+
     private static class Activation implements Serializable {
         private final List<String> activeKeys;
         private final boolean sizeRecheckNeeded;
@@ -16,14 +16,22 @@
 
 package com.vaadin.flow.data.provider;
 
+import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashMap;
-import java.util.Map;
 
 import com.vaadin.flow.function.ValueProvider;
 
 /**
  * <code>KeyMapper</code> is the simple two-way map for generating textual keys
  * for objects and retrieving the objects later with the key.
+ * <p>
+ * Keys created by the default {@link #createKey()} are numbers. They are
+ * stored as primitive <code>int</code> values and only converted to strings
+ * when a key is returned by {@link #key(Object)}, so that a mapper holding
+ * many items doesn't also hold a string and two hash map entries for each
+ * of them. Keys of other formats returned by an overridden
+ * {@link #createKey()} are stored as is.
  *
  * @param <V>
  *            the type of mapped objects
@@ -35,12 +43,134 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
 
     private int lastKey = 0;
 
-    private final HashMap<Object, String> objectIdKeyMap = new HashMap<>();
+    // Mapped items by their identifier
+    private final HashMap<Object, KeyEntry<V>> objectIdKeyMap = new HashMap<>();
 
-    private final HashMap<String, V> keyObjectMap = new HashMap<>();
+    // Mapped items with numeric keys by their key
+    private final IntKeyMap<V> numericKeyMap = new IntKeyMap<>();
+
+    // Mapped items with non-numeric keys by their key, created on demand
+    private HashMap<String, KeyEntry<V>> keyObjectMap;
 
     private ValueProvider<V, Object> identifierGetter;
 
+    private static class KeyEntry<V> implements Serializable {
+        // The numeric key, or 0 if the entry has a non-numeric key
+        private final int numericKey;
+        private final String key;
+        private V value;
+
+        private KeyEntry(int numericKey, String key, V value) {
+            this.numericKey = numericKey;
+            this.key = key;
+            this.value = value;
+        }
+
+        private String getKey() {
+            return key != null ? key : Integer.toString(numericKey);
+        }
+    }
+
+    /**
+     * Open addressing hash map from positive <code>int</code> keys to
+     * entries, without per entry allocations.
+     */
+    private static class IntKeyMap<V> implements Serializable {
+        private static final int INITIAL_CAPACITY = 16;
+
+        private int[] keys = new int[INITIAL_CAPACITY];
+        private KeyEntry<V>[] values = newArray(INITIAL_CAPACITY);
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        private static <V> KeyEntry<V>[] newArray(int length) {
+            return new KeyEntry[length];
+        }
+
+        private static int hash(int key) {
+            int hash = key * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+
+        private int slot(int key) {
+            int mask = keys.length - 1;
+            int index = hash(key) & mask;
+            while (keys[index] != 0 && keys[index] != key) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private KeyEntry<V> get(int key) {
+            return values[slot(key)];
+        }
+
+        private void put(int key, KeyEntry<V> entry) {
+            int index = slot(key);
+            if (keys[index] == 0) {
+                if ((size + 1) * 2 > keys.length) {
+                    rehash(keys.length * 2);
+                    index = slot(key);
+                }
+                keys[index] = key;
+                size++;
+            }
+            values[index] = entry;
+        }
+
+        private void remove(int key) {
+            int index = slot(key);
+            if (keys[index] == 0) {
+                return;
+            }
+            size--;
+            // Shift back following entries of the same probe sequence
+            int mask = keys.length - 1;
+            int next = index;
+            while (true) {
+                keys[index] = 0;
+                values[index] = null;
+                int ideal;
+                do {
+                    next = (next + 1) & mask;
+                    if (keys[next] == 0) {
+                        return;
+                    }
+                    ideal = hash(keys[next]) & mask;
+                } while (index <= next ? index < ideal && ideal <= next
+                        : index < ideal || ideal <= next);
+                keys[index] = keys[next];
+                values[index] = values[next];
+                index = next;
+            }
+        }
+
+        private void clear() {
+            if (keys.length > INITIAL_CAPACITY) {
+                keys = new int[INITIAL_CAPACITY];
+                values = newArray(INITIAL_CAPACITY);
+            } else {
+                Arrays.fill(keys, 0);
+                Arrays.fill(values, null);
+            }
+            size = 0;
+        }
+
+        private void rehash(int capacity) {
+            int[] oldKeys = keys;
+            KeyEntry<V>[] oldValues = values;
+            keys = new int[capacity];
+            values = newArray(capacity);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    int index = slot(oldKeys[i]);
+                    keys[index] = oldKeys[i];
+                    values[index] = oldValues[i];
+                }
+            }
+        }
+    }
+
     /**
      * Constructs a new mapper.
      *
@@ -76,15 +206,25 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
 
         // If the object is already mapped, use existing key
         Object id = identifierGetter.apply(o);
-        String key = objectIdKeyMap.get(id);
-        if (key != null) {
-            return key;
+        KeyEntry<V> entry = objectIdKeyMap.get(id);
+        if (entry != null) {
+            return entry.getKey();
         }
 
         // If the object is not yet mapped, map it
-        key = createKey();
-        objectIdKeyMap.put(id, key);
-        keyObjectMap.put(key, o);
+        String key = createKey();
+        int numericKey = parseNumericKey(key);
+        if (numericKey > 0) {
+            entry = new KeyEntry<>(numericKey, null, o);
+            numericKeyMap.put(numericKey, entry);
+        } else {
+            entry = new KeyEntry<>(0, key, o);
+            if (keyObjectMap == null) {
+                keyObjectMap = new HashMap<>();
+            }
+            keyObjectMap.put(key, entry);
+        }
+        objectIdKeyMap.put(id, entry);
 
         return key;
     }
@@ -114,7 +254,8 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
      */
     @Override
     public V get(String key) {
-        return keyObjectMap.get(key);
+        KeyEntry<V> entry = getEntry(key);
+        return entry != null ? entry.value : null;
     }
 
     /**
@@ -125,10 +266,15 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
      */
     @Override
     public void remove(V removeobj) {
-        final String key = objectIdKeyMap
+        final KeyEntry<V> entry = objectIdKeyMap
                 .remove(identifierGetter.apply(removeobj));
-        if (key != null) {
-            keyObjectMap.remove(key);
+        if (entry == null) {
+            return;
+        }
+        if (entry.key == null) {
+            numericKeyMap.remove(entry.numericKey);
+        } else {
+            keyObjectMap.remove(entry.key);
         }
     }
 
@@ -138,7 +284,8 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
     @Override
     public void removeAll() {
         objectIdKeyMap.clear();
-        keyObjectMap.clear();
+        numericKeyMap.clear();
+        keyObjectMap = null;
     }
 
     /**
@@ -150,15 +297,15 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
      *         <code>false</code> otherwise
      */
     public boolean containsKey(String key) {
-        return keyObjectMap.containsKey(key);
+        return getEntry(key) != null;
     }
 
     @Override
     public void refresh(V dataObject) {
         Object id = identifierGetter.apply(dataObject);
-        String key = objectIdKeyMap.get(id);
-        if (key != null) {
-            keyObjectMap.put(key, dataObject);
+        KeyEntry<V> entry = objectIdKeyMap.get(id);
+        if (entry != null) {
+            entry.value = dataObject;
         }
     }
 
@@ -166,11 +313,46 @@ public class KeyMapper<V> implements DataKeyMapper<V> {
     public void setIdentifierGetter(ValueProvider<V, Object> identifierGetter) {
         if (this.identifierGetter != identifierGetter) {
             this.identifierGetter = identifierGetter;
+            KeyEntry<V>[] entries = objectIdKeyMap.values()
+                    .toArray(IntKeyMap.newArray(objectIdKeyMap.size()));
             objectIdKeyMap.clear();
-            for (Map.Entry<String, V> entry : keyObjectMap.entrySet()) {
-                objectIdKeyMap.put(identifierGetter.apply(entry.getValue()),
-                        entry.getKey());
+            for (KeyEntry<V> entry : entries) {
+                objectIdKeyMap.put(identifierGetter.apply(entry.value), entry);
+            }
+        }
+    }
+
+    private KeyEntry<V> getEntry(String key) {
+        if (key == null) {
+            return null;
+        }
+        int numericKey = parseNumericKey(key);
+        if (numericKey > 0) {
+            return numericKeyMap.get(numericKey);
+        }
+        return keyObjectMap != null ? keyObjectMap.get(key) : null;
+    }
+
+    /**
+     * Parses a key in the format produced by {@link Integer#toString(int)}
+     * for positive values.
+     *
+     * @return the numeric value of the key, or 0 if the key is in some other
+     *         format
+     */
+    private static int parseNumericKey(String key) {
+        int length = key.length();
+        if (length == 0 || length > 10 || key.charAt(0) == '0') {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return 0;
             }
+            value = value * 10 + (c - '0');
         }
+        return value <= Integer.MAX_VALUE ? (int) value : 0;
     }
 }
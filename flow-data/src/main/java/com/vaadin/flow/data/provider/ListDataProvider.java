@@ -15,10 +15,15 @@
  */
 package com.vaadin.flow.data.provider;
 
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.vaadin.flow.function.SerializableComparator;
@@ -26,6 +31,12 @@ import com.vaadin.flow.function.SerializablePredicate;
 
 /**
  * {@link DataProvider} wrapper for {@link Collection}s.
+ * <p>
+ * By default, the backing collection is filtered and sorted for every query.
+ * For large collections, the filtered and sorted items can be
+ * {@link #setCachingEnabled(boolean) cached} between queries and the
+ * filtering and sorting can be done in
+ * {@link #setParallelThreshold(int) parallel}.
  *
  * @param <T>
  *            data type
@@ -41,6 +52,39 @@ public class ListDataProvider<T>
 
     private final Collection<T> backend;
 
+    private boolean cachingEnabled;
+
+    private int parallelThreshold;
+
+    // Incremented whenever the cached views become outdated
+    private final AtomicInteger generation = new AtomicInteger();
+
+    // Cached views are replaced, never modified, so that a provider shared
+    // between sessions can be queried concurrently
+    private transient volatile CachedView<T> filteredView;
+    private transient volatile CachedView<T> sortedView;
+
+    private static class CachedView<T> implements Serializable {
+        private final int generation;
+        private final Object filter;
+        private final Comparator<T> sorting;
+        private final List<T> items;
+
+        private CachedView(int generation, Object filter,
+                Comparator<T> sorting, List<T> items) {
+            this.generation = generation;
+            this.filter = filter;
+            this.sorting = sorting;
+            this.items = items;
+        }
+
+        private boolean matches(int generation, Object filter,
+                Comparator<T> sorting) {
+            return this.generation == generation && this.filter == filter
+                    && this.sorting == sorting;
+        }
+    }
+
     /**
      * Constructs a new ListDataProvider.
      * <p>
@@ -66,14 +110,82 @@ public class ListDataProvider<T>
         return backend;
     }
 
+    /**
+     * Sets whether the filtered and sorted items are kept in memory between
+     * queries. When enabled, consecutive queries with the same filter and
+     * in-memory sorting instances, e.g. the size query and the page queries
+     * of a scrolling component, filter and sort the backing collection only
+     * once.
+     * <p>
+     * The cached items are discarded by {@link #refreshAll()} and
+     * {@link #refreshItem(Object)}, so one of them must be called after the
+     * backing collection or the items in it have been modified. Caching is
+     * disabled by default.
+     *
+     * @param cachingEnabled
+     *            <code>true</code> to cache the filtered and sorted items,
+     *            <code>false</code> to filter and sort for every query
+     */
+    public void setCachingEnabled(boolean cachingEnabled) {
+        this.cachingEnabled = cachingEnabled;
+        clearCachedViews();
+    }
+
+    /**
+     * Gets whether the filtered and sorted items are kept in memory between
+     * queries.
+     *
+     * @return <code>true</code> if the items are cached, <code>false</code>
+     *         otherwise
+     * @see #setCachingEnabled(boolean)
+     */
+    public boolean isCachingEnabled() {
+        return cachingEnabled;
+    }
+
+    /**
+     * Sets the size of the backing collection from which on it is filtered
+     * and sorted in parallel, using the common fork-join pool. The filters
+     * and comparators must then be safe to call concurrently from several
+     * threads. Parallel processing is disabled by default.
+     *
+     * @param parallelThreshold
+     *            the minimum number of items to process in parallel, or
+     *            <code>0</code> to never process in parallel
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        if (parallelThreshold < 0) {
+            throw new IllegalArgumentException(
+                    "Parallel threshold cannot be negative");
+        }
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Gets the size of the backing collection from which on it is filtered
+     * and sorted in parallel.
+     *
+     * @return the minimum number of items to process in parallel, or
+     *         <code>0</code> if parallel processing is disabled
+     * @see #setParallelThreshold(int)
+     */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
     @Override
     public Stream<T> fetch(Query<T, SerializablePredicate<T>> query) {
+        if (cachingEnabled || isParallel()) {
+            List<T> items = getSortedItems(query);
+            int from = Math.min(query.getOffset(), items.size());
+            int to = (int) Math.min((long) from + query.getLimit(),
+                    items.size());
+            return items.subList(from, to).stream();
+        }
+
         Stream<T> stream = getFilteredStream(query);
 
-        Optional<Comparator<T>> comparing = Stream
-                .of(query.getInMemorySorting(), sortOrder)
-                .filter(Objects::nonNull)
-                .reduce((c1, c2) -> c1.thenComparing(c2));
+        Optional<Comparator<T>> comparing = getComparator(query);
 
         if (comparing.isPresent()) {
             stream = stream.sorted(comparing.get());
@@ -84,12 +196,101 @@ public class ListDataProvider<T>
 
     @Override
     public int size(Query<T, SerializablePredicate<T>> query) {
+        if (cachingEnabled) {
+            return getFilteredItems(query).size();
+        }
         return (int) getFilteredStream(query).count();
     }
 
+    @Override
+    public void refreshAll() {
+        clearCachedViews();
+        super.refreshAll();
+    }
+
+    @Override
+    public void refreshItem(T item) {
+        clearCachedViews();
+        super.refreshItem(item);
+    }
+
+    @Override
+    public void refreshItem(T item, boolean refreshChildren) {
+        clearCachedViews();
+        super.refreshItem(item, refreshChildren);
+    }
+
+    private Optional<Comparator<T>> getComparator(
+            Query<T, SerializablePredicate<T>> query) {
+        return Stream.of(query.getInMemorySorting(), sortOrder)
+                .filter(Objects::nonNull)
+                .reduce((c1, c2) -> c1.thenComparing(c2));
+    }
+
+    private List<T> getFilteredItems(
+            Query<T, SerializablePredicate<T>> query) {
+        Object queryFilter = query.getFilter().orElse(null);
+        int currentGeneration = generation.get();
+        CachedView<T> view = filteredView;
+        if (view != null && view.matches(currentGeneration, queryFilter,
+                null)) {
+            return view.items;
+        }
+
+        List<T> items = getFilteredStream(query)
+                .collect(Collectors.toCollection(ArrayList::new));
+        if (cachingEnabled) {
+            filteredView = new CachedView<>(currentGeneration, queryFilter,
+                    null, items);
+        }
+        return items;
+    }
+
+    private List<T> getSortedItems(Query<T, SerializablePredicate<T>> query) {
+        Optional<Comparator<T>> comparing = getComparator(query);
+        if (!comparing.isPresent()) {
+            return getFilteredItems(query);
+        }
+
+        Object queryFilter = query.getFilter().orElse(null);
+        Comparator<T> querySorting = query.getInMemorySorting();
+        int currentGeneration = generation.get();
+        CachedView<T> view = sortedView;
+        if (view != null && view.matches(currentGeneration, queryFilter,
+                querySorting)) {
+            return view.items;
+        }
+
+        List<T> filteredItems = getFilteredItems(query);
+        List<T> items;
+        if (isParallel()) {
+            items = filteredItems.parallelStream().sorted(comparing.get())
+                    .collect(Collectors.toCollection(ArrayList::new));
+        } else {
+            items = new ArrayList<>(filteredItems);
+            items.sort(comparing.get());
+        }
+        if (cachingEnabled) {
+            sortedView = new CachedView<>(currentGeneration, queryFilter,
+                    querySorting, items);
+        }
+        return items;
+    }
+
+    private boolean isParallel() {
+        return parallelThreshold > 0 && backend.size() >= parallelThreshold;
+    }
+
+    private void clearCachedViews() {
+        generation.incrementAndGet();
+        filteredView = null;
+        sortedView = null;
+    }
+
     private Stream<T> getFilteredStream(
             Query<T, SerializablePredicate<T>> query) {
-        Stream<T> stream = backend.stream();
+        Stream<T> stream = isParallel() ? backend.parallelStream()
+                : backend.stream();
 
         // Apply our own filters first so that query filters never see the items
         // that would already have been filtered out
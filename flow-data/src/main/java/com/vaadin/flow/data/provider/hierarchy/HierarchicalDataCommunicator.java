@@ -155,6 +155,7 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         }
 
         if (getHierarchyMapper() != null) {
+            getHierarchyMapper().refreshAll();
             HierarchicalUpdate update = arrayUpdater
                     .startUpdate(getHierarchyMapper().getRootSize());
             update.enqueue("$connector.ensureHierarchy");
@@ -164,6 +165,9 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
 
     @Override
     protected void handleDataRefreshEvent(DataChangeEvent.DataRefreshEvent<T> event) {
+        if (mapper != null) {
+            mapper.refreshItem(event.getItem(), event.isRefreshChildren());
+        }
         if (event.isRefreshChildren()) {
             T item = event.getItem();
             if (isExpanded(item)) {
@@ -182,6 +186,17 @@ public class HierarchicalDataCommunicator<T> extends DataCommunicator<T> {
         super.handleDataRefreshEvent(event);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Hierarchical data is always fetched synchronously, since the items of
+     * each expanded level are fetched separately.
+     */
+    @Override
+    protected boolean isFetchedAsynchronously() {
+        return false;
+    }
+
     @Override
     public Stream<T> fetchFromProvider(int offset, int limit) {
         // Instead of adding logic to this class, delegate request to the
@@ -16,6 +16,7 @@
 package com.vaadin.flow.data.provider.hierarchy;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -39,6 +40,13 @@ import com.vaadin.flow.internal.Range;
  * Keeps track of the expanded nodes, and size of of the subtrees for each
  * expanded node.
  * <p>
+ * The flattened expanded hierarchy is indexed when first needed. Each node of
+ * the index keeps the size of its visible subtree and a Fenwick tree over the
+ * subtree sizes of its children, so that the tree size, the index of an item
+ * and the item at an index are found without flattening the hierarchy. The
+ * index is updated when items are expanded or collapsed, and discarded when
+ * the filter, the sorting or the data changes.
+ * <p>
  * This class is framework internal implementation details, and can be changed /
  * moved at any point. This means that you should not directly use this for
  * anything.
@@ -65,6 +73,11 @@ public class HierarchyMapper<T, F> implements Serializable {
 
     private Set<Object> expandedItemIds = new HashSet<>();
 
+    // Index of the flattened hierarchy, built lazily. Not serialized as it can
+    // be rebuilt from the data provider.
+    private transient TreeNode<T> rootNode;
+    private transient Map<Object, TreeNode<T>> nodesById;
+
     /**
      * Constructs a new HierarchyMapper.
      *
@@ -81,7 +94,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the amount of available data
      */
     public int getTreeSize() {
-        return (int) getHierarchy(null).count();
+        return getIndexedHierarchy().descendantCount;
     }
 
     /**
@@ -103,8 +116,9 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getParentIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(getParentOfItem(item));
+        // Indexing registers the parents of the visible items
+        getIndexedHierarchy();
+        return getIndex(getParentOfItem(item));
     }
 
     /**
@@ -116,8 +130,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      *
      */
     public Integer getIndex(T item) {
-        List<T> flatHierarchy = getHierarchy(null).collect(Collectors.toList());
-        return flatHierarchy.indexOf(item);
+        return getIndexOf(item).orElse(-1);
     }
 
     /**
@@ -158,8 +171,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public Range expand(T item, Integer position) {
         if (doExpand(item) && position != null) {
-            return Range.withLength(position + 1,
-                    (int) getHierarchy(item, false).count());
+            return Range.withLength(position + 1, getSubtreeSize(item));
         }
 
         return Range.withLength(0, 0);
@@ -179,6 +191,12 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (!isExpanded(item) && hasChildren(item)) {
             expandedItemIds.add(getDataProvider().getId(item));
             expanded = true;
+
+            TreeNode<T> node = getIndexedNode(item);
+            if (node != null) {
+                loadChildren(node);
+                updateDescendantCount(node, node.descendantCount);
+            }
         }
         return expanded;
     }
@@ -195,6 +213,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         }
         if (isExpanded(item)) {
             expandedItemIds.remove(getDataProvider().getId(item));
+            unloadChildren(item);
             return true;
         }
         return false;
@@ -215,14 +234,14 @@ public class HierarchyMapper<T, F> implements Serializable {
         if (isExpanded(item)) {
             if (position != null) {
                 removedRows = Range.withLength(position + 1,
-                        (int) getHierarchy(item, false).count());
+                        getSubtreeSize(item));
             }
             expandedItemIds.remove(getDataProvider().getId(item));
+            unloadChildren(item);
         }
         return removedRows;
     }
 
-
     /**
      * Gets the current in-memory sorting.
      *
@@ -241,6 +260,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setInMemorySorting(Comparator<T> inMemorySorting) {
         this.inMemorySorting = inMemorySorting;
+        refreshAll();
     }
 
     /**
@@ -261,6 +281,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setBackEndSorting(List<QuerySortOrder> backEndSorting) {
         this.backEndSorting = backEndSorting;
+        refreshAll();
     }
 
     /**
@@ -281,6 +302,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      */
     public void setFilter(Object filter) {
         this.filter = (F) filter;
+        refreshAll();
     }
 
     /**
@@ -315,7 +337,7 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(Range range) {
-        return getHierarchy(null).skip(range.getStart()).limit(range.length());
+        return getIndexedItems(getIndexedHierarchy(), range);
     }
 
     /**
@@ -329,8 +351,14 @@ public class HierarchyMapper<T, F> implements Serializable {
      * @return the stream of items
      */
     public Stream<T> fetchHierarchyItems(T parent, Range range) {
-        return getHierarchy(parent, false).skip(range.getStart())
-                .limit(range.length());
+        TreeNode<T> node = parent == null ? getIndexedHierarchy()
+                : getIndexedNode(parent);
+        if (node == null) {
+            // The parent is not visible
+            return getHierarchy(parent, false).skip(range.getStart())
+                    .limit(range.length());
+        }
+        return getIndexedItems(node, range);
     }
 
     /**
@@ -460,10 +488,24 @@ public class HierarchyMapper<T, F> implements Serializable {
             return Optional.empty();
         }
 
-        final List<Object> collect = getHierarchy(null).map(provider::getId)
-                .collect(Collectors.toList());
-        int index = collect.indexOf(getDataProvider().getId(target));
-        return Optional.ofNullable(index < 0 ? null : index);
+        getIndexedHierarchy();
+        TreeNode<T> node = nodesById.get(getDataProvider().getId(target));
+        if (node == null) {
+            return Optional.empty();
+        }
+
+        int index = 0;
+        TreeNode<T> current = node;
+        while (current.parent != null) {
+            TreeNode<T> parent = current.parent;
+            index += parent.getOffset(current.indexInParent);
+            if (parent.parent != null) {
+                // The parent itself precedes its children
+                index++;
+            }
+            current = parent;
+        }
+        return Optional.of(index);
     }
 
     /**
@@ -617,6 +659,7 @@ public class HierarchyMapper<T, F> implements Serializable {
         childMap.clear();
         parentIdMap.clear();
         expandedItemIds.clear();
+        refreshAll();
     }
 
     /**
@@ -627,4 +670,298 @@ public class HierarchyMapper<T, F> implements Serializable {
     public boolean hasExpandedItems() {
         return !expandedItemIds.isEmpty();
     }
+
+    /**
+     * Discards the indexed hierarchy, so that it is fetched again from the
+     * data provider when next needed. Should be called when the items of the
+     * data provider have changed.
+     */
+    public void refreshAll() {
+        rootNode = null;
+        nodesById = null;
+    }
+
+    /**
+     * Updates the indexed hierarchy after the given item has been refreshed.
+     *
+     * @param item
+     *            the refreshed item
+     * @param refreshChildren
+     *            {@code true} if the children of the item have changed as
+     *            well; {@code false} if not
+     */
+    public void refreshItem(T item, boolean refreshChildren) {
+        TreeNode<T> node = getIndexedNode(item);
+        if (node == null) {
+            return;
+        }
+        node.item = item;
+        if (refreshChildren && node.children != null) {
+            int oldCount = node.descendantCount;
+            unregisterDescendants(node);
+            loadChildren(node);
+            updateDescendantCount(node, node.descendantCount - oldCount);
+        }
+    }
+
+    /**
+     * Gets the root node of the indexed hierarchy, indexing the hierarchy if
+     * needed.
+     *
+     * @return the root node, not {@code null}
+     */
+    private TreeNode<T> getIndexedHierarchy() {
+        if (rootNode == null) {
+            nodesById = new HashMap<>();
+            rootNode = new TreeNode<>(null, null);
+            loadChildren(rootNode);
+        }
+        return rootNode;
+    }
+
+    /**
+     * Gets the index node of a visible item.
+     *
+     * @param item
+     *            the item
+     * @return the node of the item, or {@code null} if the hierarchy has not
+     *         been indexed or the item is not visible
+     */
+    private TreeNode<T> getIndexedNode(T item) {
+        if (rootNode == null || item == null) {
+            return null;
+        }
+        return nodesById.get(getDataProvider().getId(item));
+    }
+
+    /**
+     * Gets the number of visible descendants of the given item.
+     *
+     * @param item
+     *            the item
+     * @return the number of visible descendants
+     */
+    private int getSubtreeSize(T item) {
+        TreeNode<T> node = getIndexedNode(item);
+        if (node == null) {
+            return (int) getHierarchy(item, false).count();
+        }
+        return node.descendantCount;
+    }
+
+    /**
+     * Fetches and indexes the children of an expanded node, including the
+     * children of expanded descendants.
+     *
+     * @param node
+     *            the node to load children for
+     */
+    private void loadChildren(TreeNode<T> node) {
+        node.clearChildren();
+        if (!isExpanded(node.item)) {
+            return;
+        }
+        List<T> childList = doFetchDirectChildren(node.item)
+                .collect(Collectors.toList());
+        if (childList.isEmpty()) {
+            removeChildren(node.id);
+            return;
+        }
+        registerChildren(node.item, childList);
+
+        List<TreeNode<T>> children = new ArrayList<>(childList.size());
+        for (T child : childList) {
+            TreeNode<T> childNode = new TreeNode<>(child,
+                    getDataProvider().getId(child));
+            childNode.parent = node;
+            childNode.indexInParent = children.size();
+            children.add(childNode);
+            nodesById.put(childNode.id, childNode);
+            loadChildren(childNode);
+        }
+        node.setChildren(children);
+    }
+
+    /**
+     * Removes the children of a collapsed item from the index.
+     *
+     * @param item
+     *            the collapsed item
+     */
+    private void unloadChildren(T item) {
+        TreeNode<T> node = getIndexedNode(item);
+        if (node != null && node.children != null) {
+            int removed = node.descendantCount;
+            unregisterDescendants(node);
+            node.clearChildren();
+            updateDescendantCount(node, -removed);
+        }
+    }
+
+    private void unregisterDescendants(TreeNode<T> node) {
+        if (node.children != null) {
+            for (TreeNode<T> child : node.children) {
+                nodesById.remove(child.id);
+                unregisterDescendants(child);
+            }
+        }
+    }
+
+    /**
+     * Propagates a change in the number of descendants of a node to its
+     * ancestors.
+     *
+     * @param node
+     *            the node whose descendants changed
+     * @param delta
+     *            the change in the number of descendants
+     */
+    private static <T> void updateDescendantCount(TreeNode<T> node,
+            int delta) {
+        if (delta == 0) {
+            return;
+        }
+        TreeNode<T> current = node;
+        while (current.parent != null) {
+            current.parent.addSize(current.indexInParent, delta);
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Gets a range of the visible descendants of an indexed node.
+     *
+     * @param node
+     *            the node whose descendants to get
+     * @param range
+     *            the range relative to the first descendant
+     * @return the stream of items in the range
+     */
+    private Stream<T> getIndexedItems(TreeNode<T> node, Range range) {
+        int start = range.getStart();
+        int end = Math.min(range.getEnd(), node.descendantCount);
+        if (start >= end) {
+            return Stream.empty();
+        }
+
+        List<T> items = new ArrayList<>(end - start);
+        TreeNode<T> current = node.getDescendant(start);
+        items.add(current.item);
+        for (int i = start + 1; i < end; i++) {
+            current = current.next();
+            items.add(current.item);
+        }
+        return items.stream();
+    }
+
+    /**
+     * A node of the indexed hierarchy. The children of a node are only
+     * present if the node is expanded and has children.
+     * <p>
+     * The {@link #sizeTree} is a Fenwick tree over the sizes of the child
+     * subtrees, each child counting as one plus its number of descendants.
+     *
+     * @param <T>
+     *            the data type
+     */
+    private static class TreeNode<T> implements Serializable {
+        private T item;
+        private final Object id;
+        private TreeNode<T> parent;
+        private int indexInParent;
+        private List<TreeNode<T>> children;
+        private int[] sizeTree;
+        private int descendantCount;
+
+        private TreeNode(T item, Object id) {
+            this.item = item;
+            this.id = id;
+        }
+
+        private void setChildren(List<TreeNode<T>> children) {
+            this.children = children;
+            int size = children.size();
+            sizeTree = new int[size + 1];
+            descendantCount = 0;
+            for (int i = 1; i <= size; i++) {
+                int weight = 1 + children.get(i - 1).descendantCount;
+                descendantCount += weight;
+                sizeTree[i] += weight;
+                int next = i + (i & -i);
+                if (next <= size) {
+                    sizeTree[next] += sizeTree[i];
+                }
+            }
+        }
+
+        private void clearChildren() {
+            children = null;
+            sizeTree = null;
+            descendantCount = 0;
+        }
+
+        private void addSize(int childIndex, int delta) {
+            for (int i = childIndex + 1; i < sizeTree.length; i += i & -i) {
+                sizeTree[i] += delta;
+            }
+            descendantCount += delta;
+        }
+
+        /**
+         * Gets the number of visible items in the subtrees of the children
+         * before the given child.
+         */
+        private int getOffset(int childIndex) {
+            int offset = 0;
+            for (int i = childIndex; i > 0; i -= i & -i) {
+                offset += sizeTree[i];
+            }
+            return offset;
+        }
+
+        /**
+         * Gets the descendant at the given position of the flattened subtree
+         * of this node, which must be less than the number of descendants.
+         */
+        private TreeNode<T> getDescendant(int position) {
+            TreeNode<T> node = this;
+            int remaining = position;
+            while (true) {
+                int childIndex = 0;
+                int step = Integer.highestOneBit(node.children.size());
+                for (; step > 0; step >>= 1) {
+                    int next = childIndex + step;
+                    if (next < node.sizeTree.length
+                            && node.sizeTree[next] <= remaining) {
+                        childIndex = next;
+                        remaining -= node.sizeTree[next];
+                    }
+                }
+                TreeNode<T> child = node.children.get(childIndex);
+                if (remaining == 0) {
+                    return child;
+                }
+                node = child;
+                remaining--;
+            }
+        }
+
+        /**
+         * Gets the next node of the flattened hierarchy, or {@code null} if
+         * this is the last one.
+         */
+        private TreeNode<T> next() {
+            if (children != null) {
+                return children.get(0);
+            }
+            TreeNode<T> node = this;
+            while (node.parent != null) {
+                if (node.indexInParent + 1 < node.parent.children.size()) {
+                    return node.parent.children.get(node.indexInParent + 1);
+                }
+                node = node.parent;
+            }
+            return null;
+        }
+    }
 }
@@ -16,14 +16,20 @@
 package com.vaadin.flow.data.provider.hierarchy;
 
 import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -44,11 +50,11 @@ public class TreeData<T> implements Serializable {
 
     private static class HierarchyWrapper<T> implements Serializable {
         private T parent;
-        private List<T> children;
+        // null until the first child is added, as most items are leaves
+        private ArrayList<T> children;
 
         public HierarchyWrapper(T parent) {
             this.parent = parent;
-            children = new ArrayList<>();
         }
 
         public T getParent() {
@@ -60,18 +66,68 @@ public class TreeData<T> implements Serializable {
         }
 
         public List<T> getChildren() {
+            // A view keeps the list live when the first child is added
+            return children != null ? children : new ChildrenView<>(this);
+        }
+
+        public List<T> getModifiableChildren() {
+            if (children == null) {
+                children = new ArrayList<>();
+            }
             return children;
         }
 
         public void addChild(T child) {
-            children.add(child);
+            getModifiableChildren().add(child);
+        }
+
+        public void ensureChildCapacity(int additionalChildren) {
+            if (children == null) {
+                children = new ArrayList<>(additionalChildren);
+            } else {
+                children.ensureCapacity(children.size() + additionalChildren);
+            }
         }
 
         public void removeChild(T child) {
-            children.remove(child);
+            if (children != null) {
+                children.remove(child);
+            }
+        }
+
+        public void trimChildren() {
+            if (children != null) {
+                children.trimToSize();
+            }
         }
     }
 
+    /**
+     * Read-only view of the children of an item that has no child list yet.
+     */
+    private static class ChildrenView<T> extends AbstractList<T>
+            implements Serializable {
+        private final HierarchyWrapper<T> wrapper;
+
+        private ChildrenView(HierarchyWrapper<T> wrapper) {
+            this.wrapper = wrapper;
+        }
+
+        @Override
+        public T get(int index) {
+            if (wrapper.children == null) {
+                throw new IndexOutOfBoundsException("Index: " + index);
+            }
+            return wrapper.children.get(index);
+        }
+
+        @Override
+        public int size() {
+            return wrapper.children == null ? 0 : wrapper.children.size();
+        }
+    }
+
+    // The iteration order is never exposed, so a plain hash map suffices
     private final Map<T, HierarchyWrapper<T>> itemToWrapperMap;
 
     /**
@@ -79,7 +135,7 @@ public class TreeData<T> implements Serializable {
      * items can be added or removed.
      */
     public TreeData() {
-        itemToWrapperMap = new LinkedHashMap<>();
+        itemToWrapperMap = new HashMap<>();
         itemToWrapperMap.put(null, new HierarchyWrapper<>(null));
     }
 
@@ -156,17 +212,7 @@ public class TreeData<T> implements Serializable {
      *             if item is null
      */
     public TreeData<T> addItem(T parent, T item) {
-        Objects.requireNonNull(item, "Item cannot be null");
-        if (parent != null && !contains(parent)) {
-            throw new IllegalArgumentException(
-                    "Parent needs to be added before children. "
-                            + "To add root items, call with parent as null");
-        }
-        if (contains(item)) {
-            throw new IllegalArgumentException(
-                    "Cannot add the same item multiple times: " + item);
-        }
-        putItem(item, parent);
+        putItem(item, parent, getParentWrapper(parent));
         return this;
     }
 
@@ -217,7 +263,9 @@ public class TreeData<T> implements Serializable {
      *             if any of the items are null
      */
     public TreeData<T> addItems(T parent, Collection<T> items) {
-        items.forEach(item -> addItem(parent, item));
+        HierarchyWrapper<T> parentWrapper = getParentWrapper(parent);
+        parentWrapper.ensureChildCapacity(items.size());
+        items.forEach(item -> putItem(item, parent, parentWrapper));
         return this;
     }
 
@@ -242,7 +290,8 @@ public class TreeData<T> implements Serializable {
      *             if any of the items are null
      */
     public TreeData<T> addItems(T parent, Stream<T> items) {
-        items.forEach(item -> addItem(parent, item));
+        HierarchyWrapper<T> parentWrapper = getParentWrapper(parent);
+        items.forEach(item -> putItem(item, parent, parentWrapper));
         return this;
     }
 
@@ -287,6 +336,92 @@ public class TreeData<T> implements Serializable {
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * Adds the given items to this structure in a single pass, using the given
+     * value provider to get the parent of each item. This is the most
+     * efficient way to load a large hierarchy, e.g. from a table that has a
+     * parent reference in each row.
+     * <p>
+     * The parent of an item must be {@code null} for root items, an item
+     * already in this structure, or another item in the stream, in which case
+     * it may come before or after its children. Children are added in the
+     * order of the stream, after any existing children of their parent.
+     * <p>
+     * The items are only added if all of them can be added, i.e. if each
+     * parent can be found and the items don't form cycles.
+     *
+     * @param items
+     *            the items to add
+     * @param parentProvider
+     *            the value provider that returns the parent of an item, or
+     *            {@code null} for root items
+     * @return this
+     *
+     * @throws IllegalArgumentException
+     *             if the parent of an item is neither in this structure nor
+     *             in the stream, if the items form a cycle, or if any of the
+     *             items has already been added to this structure
+     * @throws NullPointerException
+     *             if any of the items are null
+     */
+    public TreeData<T> addItemsByParent(Stream<T> items,
+            ValueProvider<T, T> parentProvider) {
+        Objects.requireNonNull(parentProvider,
+                "Parent provider cannot be null");
+
+        // Items are collected separately and only added once all of them
+        // have been validated
+        Map<T, HierarchyWrapper<T>> added = new HashMap<>();
+        // Parents referenced by items but not yet seen in the stream
+        Set<T> missingParents = new HashSet<>();
+        // Children of parents already in this structure, in stream order
+        Map<T, List<T>> attachedChildren = new LinkedHashMap<>();
+
+        items.forEach(item -> {
+            Objects.requireNonNull(item, "Item cannot be null");
+            T parent = parentProvider.apply(item);
+
+            HierarchyWrapper<T> wrapper = added.get(item);
+            if (contains(item) || wrapper != null
+                    && !missingParents.remove(item)) {
+                throw new IllegalArgumentException(
+                        "Cannot add the same item multiple times: " + item);
+            }
+            if (wrapper == null) {
+                added.put(item, new HierarchyWrapper<>(parent));
+            } else {
+                wrapper.setParent(parent);
+            }
+
+            if (parent == null || contains(parent)) {
+                attachedChildren
+                        .computeIfAbsent(parent, key -> new ArrayList<>())
+                        .add(item);
+            } else {
+                added.computeIfAbsent(parent, key -> {
+                    missingParents.add(key);
+                    return new HierarchyWrapper<>(null);
+                }).addChild(item);
+            }
+        });
+
+        if (!missingParents.isEmpty()) {
+            throw new IllegalArgumentException("Parent '"
+                    + missingParents.iterator().next()
+                    + "' is neither in the hierarchy nor in the added items");
+        }
+        verifyReachable(added, attachedChildren);
+
+        added.values().forEach(HierarchyWrapper::trimChildren);
+        itemToWrapperMap.putAll(added);
+        attachedChildren.forEach((parent, children) -> {
+            HierarchyWrapper<T> parentWrapper = itemToWrapperMap.get(parent);
+            parentWrapper.ensureChildCapacity(children.size());
+            parentWrapper.getModifiableChildren().addAll(children);
+        });
+        return this;
+    }
+
     /**
      * Remove a given item from this structure. Additionally, this will
      * recursively remove any descendants of the item.
@@ -433,7 +568,7 @@ public class TreeData<T> implements Serializable {
 
         if (sibling == null) {
             List<T> children = itemToWrapperMap.get(getParent(item))
-                    .getChildren();
+                    .getModifiableChildren();
 
             // Move item to first position
             children.remove(item);
@@ -452,7 +587,8 @@ public class TreeData<T> implements Serializable {
                         + sibling + "' don't have the same parent");
             }
 
-            List<T> children = itemToWrapperMap.get(parent).getChildren();
+            List<T> children = itemToWrapperMap.get(parent)
+                    .getModifiableChildren();
 
             // Move item to the position after the sibling
             children.remove(item);
@@ -472,12 +608,42 @@ public class TreeData<T> implements Serializable {
         return itemToWrapperMap.containsKey(item);
     }
 
-    private void putItem(T item, T parent) {
-        HierarchyWrapper<T> wrappedItem = new HierarchyWrapper<>(parent);
-        if (itemToWrapperMap.containsKey(parent)) {
-            itemToWrapperMap.get(parent).addChild(item);
+    private HierarchyWrapper<T> getParentWrapper(T parent) {
+        HierarchyWrapper<T> parentWrapper = itemToWrapperMap.get(parent);
+        if (parentWrapper == null) {
+            throw new IllegalArgumentException(
+                    "Parent needs to be added before children. "
+                            + "To add root items, call with parent as null");
+        }
+        return parentWrapper;
+    }
+
+    private void putItem(T item, T parent, HierarchyWrapper<T> parentWrapper) {
+        Objects.requireNonNull(item, "Item cannot be null");
+        if (itemToWrapperMap.putIfAbsent(item,
+                new HierarchyWrapper<>(parent)) != null) {
+            throw new IllegalArgumentException(
+                    "Cannot add the same item multiple times: " + item);
+        }
+        parentWrapper.addChild(item);
+    }
+
+    private static <T> void verifyReachable(
+            Map<T, HierarchyWrapper<T>> added,
+            Map<T, List<T>> attachedChildren) {
+        // Items that are not reachable from the existing hierarchy form
+        // cycles among themselves
+        int reachable = 0;
+        Deque<T> pending = new ArrayDeque<>();
+        attachedChildren.values().forEach(pending::addAll);
+        while (!pending.isEmpty()) {
+            reachable++;
+            pending.addAll(added.get(pending.pop()).getChildren());
+        }
+        if (reachable != added.size()) {
+            throw new IllegalArgumentException(
+                    "The added items contain a cycle");
         }
-        itemToWrapperMap.put(item, wrappedItem);
     }
 
     private void addItemsRecursively(Collection<T> items,
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.data.provider;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CachingBackEndDataProviderTest {
+
+    private final List<StrBean> data = StrBean.generateRandomBeans(100);
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private final AtomicInteger sizeCount = new AtomicInteger();
+
+    private CallbackDataProvider<StrBean, String> backEnd;
+    private CachingBackEndDataProvider<StrBean, String> dataProvider;
+
+    @Before
+    public void setup() {
+        backEnd = new CallbackDataProvider<>(query -> {
+            fetchCount.incrementAndGet();
+            return data.stream()
+                    .filter(bean -> bean.getValue()
+                            .startsWith(query.getFilter().orElse("")))
+                    .skip(query.getOffset()).limit(query.getLimit());
+        }, query -> {
+            sizeCount.incrementAndGet();
+            return (int) data.stream()
+                    .filter(bean -> bean.getValue()
+                            .startsWith(query.getFilter().orElse("")))
+                    .count();
+        });
+        dataProvider = new CachingBackEndDataProvider<>(backEnd);
+    }
+
+    @Test
+    public void sameQuery_backEndQueriedOnce() {
+        List<StrBean> first = fetch(10, 20, "Foo");
+        List<StrBean> second = fetch(10, 20, "Foo");
+        int size = dataProvider.size(new Query<>("Foo"));
+        dataProvider.size(new Query<>("Foo"));
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(20, first.size());
+        Assert.assertEquals(1, fetchCount.get());
+        Assert.assertEquals(1, sizeCount.get());
+        Assert.assertEquals(data.stream()
+                .filter(bean -> bean.getValue().startsWith("Foo")).count(),
+                size);
+    }
+
+    @Test
+    public void differentQueries_cachedSeparately() {
+        fetch(0, 20, "Foo");
+        fetch(20, 20, "Foo");
+        fetch(0, 20, "Bar");
+        dataProvider.fetch(new Query<>(0, 20,
+                QuerySortOrder.asc("value").build(), null, "Foo"));
+
+        Assert.assertEquals(4, fetchCount.get());
+
+        fetch(20, 20, "Foo");
+        Assert.assertEquals(4, fetchCount.get());
+    }
+
+    @Test
+    public void refreshAll_cacheCleared() {
+        fetch(0, 20, null);
+        data.remove(0);
+        dataProvider.refreshAll();
+
+        Assert.assertEquals(data.subList(0, 20), fetch(0, 20, null));
+        Assert.assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    public void backEndRefreshed_cacheCleared() {
+        fetch(0, 20, null);
+        backEnd.refreshItem(data.get(0));
+        fetch(0, 20, null);
+
+        Assert.assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    public void setSortOrders_cacheCleared() {
+        fetch(0, 20, null);
+        dataProvider.setSortOrders(Collections.emptyList());
+        fetch(0, 20, null);
+
+        Assert.assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    public void maximumSizeExceeded_leastRecentlyUsedEvicted() {
+        dataProvider.setMaximumSize(2);
+        fetch(0, 10, null);
+        fetch(10, 10, null);
+        fetch(0, 10, null);
+        fetch(20, 10, null);
+        Assert.assertEquals(3, fetchCount.get());
+
+        fetch(0, 10, null);
+        Assert.assertEquals(3, fetchCount.get());
+        fetch(10, 10, null);
+        Assert.assertEquals(4, fetchCount.get());
+    }
+
+    @Test
+    public void failingQuery_notCached() {
+        CachingBackEndDataProvider<StrBean, String> failing = new CachingBackEndDataProvider<>(
+                new CallbackDataProvider<StrBean, String>(query -> {
+                    fetchCount.incrementAndGet();
+                    throw new IllegalStateException("Back end not available");
+                }, query -> 0));
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                failing.fetch(new Query<>());
+                Assert.fail("The exception should be rethrown");
+            } catch (IllegalStateException expected) {
+                // The query is retried
+            }
+        }
+        Assert.assertEquals(2, fetchCount.get());
+    }
+
+    private List<StrBean> fetch(int offset, int limit, String filter) {
+        return dataProvider
+                .fetch(new Query<>(offset, limit, Collections.emptyList(),
+                        null, filter))
+                .collect(Collectors.toList());
+    }
+}
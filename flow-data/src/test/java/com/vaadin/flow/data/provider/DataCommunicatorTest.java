@@ -16,9 +16,14 @@
 package com.vaadin.flow.data.provider;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
@@ -28,6 +33,7 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
@@ -35,10 +41,13 @@ import org.mockito.MockitoAnnotations;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.internal.Range;
+import com.vaadin.flow.server.Command;
 import com.vaadin.flow.server.VaadinRequest;
 import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
 public class DataCommunicatorTest {
@@ -228,6 +237,76 @@ public class DataCommunicatorTest {
                 dataCommunicator.getKeyMapper().get("1"));
     }
 
+    @Test
+    public void scrollWithoutConfirmation_noPassivationLimit_allItemsKeptRegistered() {
+        dataCommunicator.setDataProvider(DataProvider.fromCallbacks(
+                query -> IntStream
+                        .range(query.getOffset(),
+                                query.getOffset() + query.getLimit())
+                        .mapToObj(Item::new),
+                query -> 1000), null);
+        Assert.assertEquals(Integer.MAX_VALUE,
+                dataCommunicator.getPassivationLimit());
+
+        for (int start = 0; start < 1000; start += 50) {
+            dataCommunicator.setRequestedRange(start, 50);
+            fakeClientCommunication();
+        }
+
+        DataKeyMapper<Item> keyMapper = dataCommunicator.getKeyMapper();
+        Assert.assertEquals(0, keyMapper.get("1").id);
+        Assert.assertEquals(999, keyMapper.get("1000").id);
+    }
+
+    @Test
+    public void scrollWithoutConfirmation_passivationLimitExceeded_oldestItemsUnregistered() {
+        dataCommunicator.setDataProvider(DataProvider.fromCallbacks(
+                query -> IntStream
+                        .range(query.getOffset(),
+                                query.getOffset() + query.getLimit())
+                        .mapToObj(Item::new),
+                query -> 1000), null);
+        dataCommunicator.setPassivationLimit(100);
+
+        for (int start = 0; start < 1000; start += 50) {
+            dataCommunicator.setRequestedRange(start, 50);
+            fakeClientCommunication();
+        }
+
+        DataKeyMapper<Item> keyMapper = dataCommunicator.getKeyMapper();
+        Assert.assertNull("Items of the oldest updates should be unregistered",
+                keyMapper.get("1"));
+        Assert.assertNull(keyMapper.get("850"));
+        Assert.assertEquals(850, keyMapper.get("851").id);
+        Assert.assertEquals(999, keyMapper.get("1000").id);
+    }
+
+    @Test
+    public void partialUpdates_refreshItems_onlyChangedPropertiesSent() {
+        List<JsonArray> updates = new ArrayList<>();
+        dataCommunicator = new DataCommunicator<>((item, json) -> {
+            json.put("id", item.id);
+            json.put("value", item.value);
+        }, arrayUpdater, updates::add, element.getNode());
+        dataCommunicator.setPartialUpdates(true);
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+        dataCommunicator.setRequestedRange(0, 10);
+        fakeClientCommunication();
+
+        dataCommunicator.refreshItems(Arrays.asList(new Item(3, "changed"),
+                new Item(4), new Item(50, "not on client")));
+        fakeClientCommunication();
+
+        Assert.assertEquals(1, updates.size());
+        JsonArray sent = updates.get(0);
+        Assert.assertEquals(1, sent.length());
+        JsonObject changes = sent.getObject(0);
+        Assert.assertEquals(dataCommunicator.getKeyMapper().key(new Item(3)),
+                changes.getString("key"));
+        Assert.assertEquals("changed", changes.getString("value"));
+        Assert.assertFalse(changes.hasKey("id"));
+    }
+
     @Test
     public void dataProviderBreaksContract_limitIsNotCalled_throw() {
         List<Item> items = new ArrayList<>();
@@ -342,7 +421,186 @@ public class DataCommunicatorTest {
         Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
     }
 
+    @Test
+    public void readAhead_nextRangeServedWithoutFetching() {
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setReadAhead(50);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Assert.assertEquals(Range.withLength(50, 50), lastSet);
+        Mockito.verify(dataProvider, Mockito.times(1)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void readAhead_dataChanged_prefetchedItemsDiscarded() {
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setReadAhead(50);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        dataProvider.refreshAll();
+        dataCommunicator.setRequestedRange(50, 50);
+        fakeClientCommunication();
+
+        Mockito.verify(dataProvider, Mockito.times(2)).fetch(Mockito.any());
+    }
+
+    @Test
+    public void readAhead_limitedByPrefetchBudget() {
+        AbstractDataProvider<Item, Object> dataProvider = Mockito
+                .spy(createDataProvider());
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setReadAhead(50);
+        dataCommunicator.setPrefetchBudget(60);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(dataProvider).fetch(query.capture());
+        Assert.assertEquals(60, query.getValue().getLimit());
+    }
+
+    @Test
+    public void undefinedSize_estimateGrowsUntilEndOfData_sizeNotQueried() {
+        ListDataProvider<Item> dataProvider = Mockito
+                .spy(new ListDataProvider<>(IntStream.range(0, 300)
+                        .mapToObj(Item::new).collect(Collectors.toList())));
+        dataCommunicator.setDataProvider(dataProvider, null);
+        dataCommunicator.setDefinedSize(false);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(250);
+
+        dataCommunicator.setRequestedRange(200, 50);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(450);
+
+        dataCommunicator.setRequestedRange(250, 50);
+        fakeClientCommunication();
+        dataCommunicator.setRequestedRange(280, 50);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(300);
+        Assert.assertEquals(Range.withLength(250, 30), lastClear);
+
+        Mockito.verify(dataProvider, Mockito.never()).size(Mockito.any());
+    }
+
+    @Test
+    public void undefinedSize_sizeEstimateCallbackUsedInitially() {
+        dataCommunicator.setDataProvider(createDataProvider(), null);
+        dataCommunicator.setDefinedSize(false);
+        dataCommunicator.setSizeEstimateCallback(query -> 1000);
+
+        dataCommunicator.setRequestedRange(0, 50);
+        fakeClientCommunication();
+        Mockito.verify(arrayUpdater).startUpdate(1000);
+    }
+
+    @Test
+    public void asyncDataProvider_itemsSentWhenQueriesComplete() {
+        VaadinSession previousSession = VaadinSession.getCurrent();
+        try {
+            MockUI asyncUI = createAsyncUI();
+            DataCommunicator<Item> communicator = createCommunicator(asyncUI);
+
+            CompletableFuture<Integer> size = new CompletableFuture<>();
+            CompletableFuture<List<Item>> items = new CompletableFuture<>();
+            communicator.setDataProvider(
+                    new AsyncCallbackDataProvider<Item, Object>(
+                            query -> items, query -> size),
+                    null);
+            communicator.setRequestedRange(0, 50);
+            fakeClientCommunication(asyncUI);
+            Assert.assertNull("No items should be sent before the size is known",
+                    lastSet);
+
+            size.complete(100);
+            fakeClientCommunication(asyncUI);
+            Assert.assertNull("No items should be sent before they are fetched",
+                    lastSet);
+
+            items.complete(IntStream.range(0, 50).mapToObj(Item::new)
+                    .collect(Collectors.toList()));
+            fakeClientCommunication(asyncUI);
+            Assert.assertEquals(Range.withLength(0, 50), lastSet);
+        } finally {
+            VaadinSession.setCurrent(previousSession);
+            UI.setCurrent(ui);
+        }
+    }
+
+    @Test
+    public void asyncDataProvider_undefinedSizeEstimateOvershoots_sizeQueriedWithoutBlocking() {
+        VaadinSession previousSession = VaadinSession.getCurrent();
+        try {
+            MockUI asyncUI = createAsyncUI();
+            DataCommunicator<Item> communicator = createCommunicator(asyncUI);
+
+            AtomicReference<CompletableFuture<List<Item>>> items = new AtomicReference<>();
+            CompletableFuture<Integer> size = new CompletableFuture<>();
+            AsyncCallbackDataProvider<Item, Object> dataProvider = Mockito
+                    .spy(new AsyncCallbackDataProvider<Item, Object>(query -> {
+                        items.set(new CompletableFuture<>());
+                        return items.get();
+                    }, query -> size));
+            communicator.setDataProvider(dataProvider, null);
+            communicator.setDefinedSize(false);
+            communicator.setSizeEstimateCallback(query -> 1000);
+
+            communicator.setRequestedRange(200, 50);
+            fakeClientCommunication(asyncUI);
+
+            // The data ends before the requested range
+            items.get().complete(Collections.emptyList());
+            fakeClientCommunication(asyncUI);
+            Mockito.verify(dataProvider, Mockito.never())
+                    .size(Mockito.any());
+
+            size.complete(30);
+            fakeClientCommunication(asyncUI);
+            Mockito.verify(arrayUpdater).startUpdate(30);
+            Mockito.verify(dataProvider, Mockito.never())
+                    .size(Mockito.any());
+        } finally {
+            VaadinSession.setCurrent(previousSession);
+            UI.setCurrent(ui);
+        }
+    }
+
+    private static MockUI createAsyncUI() {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.accessSession(Mockito.any(VaadinSession.class),
+                Mockito.any(Command.class))).thenAnswer(invocation -> {
+                    ((Command) invocation.getArguments()[1]).execute();
+                    return null;
+                });
+        VaadinSession session = new AlwaysLockedVaadinSession(service);
+        VaadinSession.setCurrent(session);
+        return new MockUI(session);
+    }
+
+    private DataCommunicator<Item> createCommunicator(UI ui) {
+        Element element = new Element("div");
+        ui.getElement().appendChild(element);
+        return new DataCommunicator<>(dataGenerator, arrayUpdater, data -> {
+        }, element.getNode());
+    }
+
     private void fakeClientCommunication() {
+        fakeClientCommunication(ui);
+    }
+
+    private static void fakeClientCommunication(UI ui) {
         ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
         ui.getInternals().getStateTree().collectChanges(ignore -> {
         });
@@ -18,6 +18,7 @@ package com.vaadin.flow.data.provider;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.SerializationUtils;
@@ -25,6 +26,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import com.vaadin.flow.function.SerializableComparator;
+import com.vaadin.flow.function.SerializablePredicate;
 
 public class ListDataProviderTest
         extends DataProviderTestBase<ListDataProvider<StrBean>> {
@@ -239,6 +241,55 @@ public class ListDataProviderTest
         getDataProvider().setSortComparator(serializableComp);
     }
 
+    @Test
+    public void cachingEnabled_sameFilter_filterAppliedOnce() {
+        ListDataProvider<StrBean> provider = getDataProvider();
+        provider.setCachingEnabled(true);
+        AtomicInteger filterCalls = new AtomicInteger();
+        SerializablePredicate<StrBean> filter = bean -> {
+            filterCalls.incrementAndGet();
+            return bean.getId() % 2 == 0;
+        };
+        SerializableComparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getId)::compare;
+
+        int size = provider.size(new Query<>(filter));
+        List<StrBean> page = provider
+                .fetch(new Query<>(10, 10, null, sorting, filter))
+                .collect(Collectors.toList());
+        provider.fetch(new Query<>(20, 10, null, sorting, filter)).count();
+
+        Assert.assertEquals(51, size);
+        Assert.assertEquals(18, page.get(0).getId());
+        Assert.assertEquals(data.size(), filterCalls.get());
+
+        data.removeIf(bean -> bean.getId() == 0);
+        Assert.assertEquals("Cached size should be used until refreshed", 51,
+                provider.size(new Query<>(filter)));
+
+        provider.refreshAll();
+        Assert.assertEquals(50, provider.size(new Query<>(filter)));
+    }
+
+    @Test
+    public void parallelThreshold_exceeded_sameResultsAsSequential() {
+        ListDataProvider<StrBean> provider = getDataProvider();
+        SerializableComparator<StrBean> sorting = Comparator
+                .comparing(StrBean::getValue)
+                .thenComparing(StrBean::getId)::compare;
+        Query<StrBean, SerializablePredicate<StrBean>> query = new Query<>(5,
+                30, null, sorting, gt5Filter);
+
+        List<StrBean> sequential = provider.fetch(query)
+                .collect(Collectors.toList());
+        provider.setParallelThreshold(10);
+
+        Assert.assertEquals(sequential,
+                provider.fetch(query).collect(Collectors.toList()));
+        Assert.assertEquals(data.stream().filter(gt5Filter).count(),
+                provider.size(new Query<>(gt5Filter)));
+    }
+
     @Test
     public void serializableWithListeners() {
         ListDataProvider<StrBean> provider = getDataProvider();
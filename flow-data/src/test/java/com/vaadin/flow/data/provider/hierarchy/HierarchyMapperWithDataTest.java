@@ -228,6 +228,41 @@ public class HierarchyMapperWithDataTest {
         insertRows(mapper.expand(node, mapper.getIndexOf(node).orElse(null)));
     }
 
+    @Test
+    public void getIndexOf_afterExpandAndCollapse_matchesFlattenedHierarchy() {
+        Node lastRoot = roots.get(roots.size() - 1);
+        expand(testData.get(0));
+        expand(lastRoot);
+        expand(testData.get(1));
+        collapse(testData.get(0));
+        expand(testData.get(0));
+
+        List<Node> expectedResult = testData.stream()
+                .filter(n -> roots.contains(n)
+                        || n.getParent().equals(testData.get(0))
+                        || n.getParent().equals(testData.get(1))
+                        || n.getParent().equals(lastRoot))
+                .collect(Collectors.toList());
+        assertEquals(expectedResult.size(), mapper.getTreeSize());
+        checkMapSize();
+        for (int i = 0; i < expectedResult.size(); i++) {
+            assertEquals(Integer.valueOf(i),
+                    mapper.getIndexOf(expectedResult.get(i)).orElse(null));
+        }
+        assertEquals(Integer.valueOf(-1),
+                mapper.getIndex(testData.get(testData.size() - 1)));
+    }
+
+    @Test
+    public void refreshItem_childrenAdded_treeSizeUpdated() {
+        expand(testData.get(0));
+        mapper.getTreeSize();
+        data.addItem(testData.get(0), new Node(-1, testData.get(0)));
+
+        mapper.refreshItem(testData.get(0), true);
+        assertEquals(ROOT_COUNT + PARENT_COUNT + 1, mapper.getTreeSize());
+    }
+
     private void collapse(Node node) {
         removeRows(mapper.collapse(node, mapper.getIndexOf(node).orElse(null)));
     }
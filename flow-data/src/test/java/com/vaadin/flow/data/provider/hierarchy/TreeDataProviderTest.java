@@ -16,12 +16,15 @@
 package com.vaadin.flow.data.provider.hierarchy;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -82,6 +85,42 @@ public class TreeDataProviderTest
         new TreeData<>().addItem(null, bean).addItem(null, bean);
     }
 
+    @Test
+    public void treeData_addItemsByParent_childrenBeforeParents() {
+        TreeData<Integer> treeData = new TreeData<>();
+        treeData.addItem(null, 0);
+        // Item 10 is a child of 3, which comes later in the stream
+        treeData.addItemsByParent(Stream.of(10, 2, 3, 1, 11),
+                item -> item >= 10 ? Integer.valueOf(3)
+                        : item == 3 ? null : Integer.valueOf(0));
+
+        assertEquals(Arrays.asList(0, 3), treeData.getRootItems());
+        assertEquals(Arrays.asList(2, 1), treeData.getChildren(0));
+        assertEquals(Arrays.asList(10, 11), treeData.getChildren(3));
+        assertEquals(Integer.valueOf(3), treeData.getParent(10));
+        assertTrue(treeData.getChildren(10).isEmpty());
+    }
+
+    @Test
+    public void treeData_addItemsByParent_missingParent_nothingAdded() {
+        TreeData<Integer> treeData = new TreeData<>();
+        try {
+            treeData.addItemsByParent(Stream.of(1, 2),
+                    item -> item == 1 ? null : Integer.valueOf(5));
+            fail("Missing parent should not be accepted");
+        } catch (IllegalArgumentException expected) {
+            // Nothing should have been added
+        }
+        assertTrue(treeData.getRootItems().isEmpty());
+        assertFalse(treeData.contains(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void treeData_addItemsByParent_cycle_throws() {
+        new TreeData<Integer>().addItemsByParent(Stream.of(1, 2),
+                item -> item == 1 ? Integer.valueOf(2) : Integer.valueOf(1));
+    }
+
     @Test
     public void treeData_remove_root_item() {
         data.removeItem(null);
@@ -128,6 +167,18 @@ public class TreeDataProviderTest
         assertEquals(10, data.getRootItems().size());
     }
 
+    @Test
+    public void treeData_leafChildren_listStaysLive() {
+        StrBean leaf = rootData.get(1);
+        List<StrBean> children = data.getChildren(leaf);
+        assertTrue(children.isEmpty());
+
+        StrBean child = new StrBean("child", 100, -1);
+        data.addItem(leaf, child);
+
+        assertEquals(Collections.singletonList(child), children);
+    }
+
     @Test
     public void treeData_move_after_sibling() {
         StrBean root0 = rootData.get(0);
@@ -213,4 +213,41 @@ public class ComponentRendererTest {
                 updatedComponent);
     }
 
+    @Test
+    public void componentPool_destroyedItemComponentReusedForNewItem() {
+        AtomicInteger createInvocations = new AtomicInteger();
+        ComponentRenderer<TestLabel, String> renderer = new ComponentRenderer<>(
+                item -> {
+                    createInvocations.incrementAndGet();
+                    return new TestLabel(item);
+                }, (component, item) -> {
+                    ((TestLabel) component).setText(item);
+                    return component;
+                });
+        KeyMapper<String> keyMapper = new KeyMapper<>();
+        Element container = new Element("div");
+        ComponentDataGenerator<String> generator = new ComponentDataGenerator<>(
+                renderer, keyMapper::key);
+        generator.setContainer(container);
+        generator.setNodeIdPropertyName("nodeId");
+        generator.setComponentPoolSize(1);
+
+        generator.generateData("first", Json.createObject());
+        Element firstElement = container.getChild(0);
+        generator.destroyData("first");
+        keyMapper.remove("first");
+        Assert.assertEquals("Pooled component should stay attached", 1,
+                container.getChildCount());
+
+        generator.generateData("second", Json.createObject());
+
+        Assert.assertEquals(1, createInvocations.get());
+        Assert.assertEquals(1, container.getChildCount());
+        Assert.assertEquals(firstElement, container.getChild(0));
+        Assert.assertEquals("second", container.getChild(0).getText());
+
+        generator.destroyAllData();
+        Assert.assertEquals(0, container.getChildCount());
+    }
+
 }
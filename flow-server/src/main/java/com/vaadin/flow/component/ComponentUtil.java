@@ -37,8 +37,10 @@ import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.function.SerializableTriConsumer;
 import com.vaadin.flow.i18n.LocaleChangeEvent;
 import com.vaadin.flow.i18n.LocaleChangeObserver;
+import com.vaadin.flow.internal.NodeOwner;
 import com.vaadin.flow.internal.ReflectionCache;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
 import com.vaadin.flow.internal.nodefeature.VirtualChildrenList;
 import com.vaadin.flow.server.Attributes;
 import com.vaadin.flow.server.VaadinService;
@@ -220,6 +222,8 @@ public class ComponentUtil {
         }
 
         Optional<UI> ui = component.getUI();
+        ui.ifPresent(value -> value.getInternals()
+                .addNavigationObserver(component));
         if (ui.isPresent() && component instanceof LocaleChangeObserver) {
             LocaleChangeEvent localeChangeEvent = new LocaleChangeEvent(
                     ui.get(), ui.get().getLocale());
@@ -258,6 +262,12 @@ public class ComponentUtil {
             onComponentDetach(((Composite<?>) component).getContent());
         }
 
+        NodeOwner owner = component.getElement().getNode().getOwner();
+        if (owner instanceof StateTree) {
+            ((StateTree) owner).getUI().getInternals()
+                    .removeNavigationObserver(component);
+        }
+
         DetachEvent detachEvent = new DetachEvent(component);
         component.onDetach(detachEvent);
         fireEvent(component, detachEvent);
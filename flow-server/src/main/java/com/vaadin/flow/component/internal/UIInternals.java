@@ -17,9 +17,11 @@ package com.vaadin.flow.component.internal;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -57,9 +59,11 @@ import com.vaadin.flow.internal.nodefeature.PollConfigurationMap;
 import com.vaadin.flow.internal.nodefeature.PushConfigurationMap;
 import com.vaadin.flow.internal.nodefeature.ReconnectDialogConfigurationMap;
 import com.vaadin.flow.router.AfterNavigationListener;
+import com.vaadin.flow.router.AfterNavigationObserver;
 import com.vaadin.flow.router.BeforeEnterListener;
 import com.vaadin.flow.router.BeforeLeaveEvent.ContinueNavigationAction;
 import com.vaadin.flow.router.BeforeLeaveListener;
+import com.vaadin.flow.router.BeforeLeaveObserver;
 import com.vaadin.flow.router.ListenerPriority;
 import com.vaadin.flow.router.Location;
 import com.vaadin.flow.router.Router;
@@ -174,6 +178,14 @@ public class UIInternals implements Serializable {
 
     private HashMap<Class<?>, List<?>> listeners = new HashMap<>();
 
+    /**
+     * Attached components implementing {@link BeforeLeaveObserver} or
+     * {@link AfterNavigationObserver}, so that navigation doesn't need to
+     * search the whole element tree for them.
+     */
+    private final Set<Component> navigationObservers = Collections
+            .newSetFromMap(new IdentityHashMap<>());
+
     private Location lastHandledNavigation = null;
 
     private ContinueNavigationAction continueNavigationAction = null;
@@ -476,6 +488,49 @@ public class UIInternals implements Serializable {
         return addListener(BeforeLeaveHandler.class, listener);
     }
 
+    /**
+     * Registers a component attached to this UI as a navigation observer if
+     * it implements {@link BeforeLeaveObserver} or
+     * {@link AfterNavigationObserver}. Other components are ignored.
+     * <p>
+     * For internal use only. May be renamed or removed in a future release.
+     *
+     * @param component
+     *            the attached component, not <code>null</code>
+     */
+    public void addNavigationObserver(Component component) {
+        if (component instanceof BeforeLeaveObserver
+                || component instanceof AfterNavigationObserver) {
+            navigationObservers.add(component);
+        }
+    }
+
+    /**
+     * Unregisters a component which is detached from this UI as a navigation
+     * observer.
+     * <p>
+     * For internal use only. May be renamed or removed in a future release.
+     *
+     * @param component
+     *            the detached component, not <code>null</code>
+     */
+    public void removeNavigationObserver(Component component) {
+        navigationObservers.remove(component);
+    }
+
+    /**
+     * Gets the components attached to this UI which implement
+     * {@link BeforeLeaveObserver} or {@link AfterNavigationObserver}, in no
+     * particular order.
+     * <p>
+     * For internal use only. May be renamed or removed in a future release.
+     *
+     * @return an unmodifiable collection of navigation observer components
+     */
+    public Collection<Component> getNavigationObservers() {
+        return Collections.unmodifiableCollection(navigationObservers);
+    }
+
     /**
      * Add a listener that will be informed when new components have been
      * attached and all navigation tasks have resolved.
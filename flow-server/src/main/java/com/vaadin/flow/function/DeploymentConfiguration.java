@@ -286,6 +286,95 @@ public interface DeploymentConfiguration extends Serializable {
         return getBooleanProperty(InitParameters.SERVLET_PARAMETER_BROTLI, false);
     }
 
+    /**
+     * Checks whether pending access tasks should be run and pushed by a
+     * background executor instead of by the thread that enqueues them.
+     *
+     * @return <code>true</code> to use a background executor,
+     *         <code>false</code> to run the tasks on the calling thread if
+     *         the session is not locked
+     * @see com.vaadin.flow.server.VaadinService#getAccessExecutor()
+     */
+    default boolean isAsyncAccess() {
+        return getBooleanProperty(InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS,
+                false);
+    }
+
+    /**
+     * Checks whether session locks should use a fair ordering policy.
+     *
+     * @return <code>true</code> to use fair session locks, <code>false</code>
+     *         to use the default non-fair ordering
+     */
+    default boolean isSessionLockFair() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_SESSION_LOCK_FAIR, false);
+    }
+
+    /**
+     * Gets the time in milliseconds after which a thread waiting for a session
+     * lock logs a warning about the thread holding the lock.
+     *
+     * @return the warning threshold in milliseconds, <code>0</code> if
+     *         disabled
+     */
+    default int getSessionLockWarningThreshold() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_SESSION_LOCK_WARNING_THRESHOLD,
+                0, Integer::parseInt);
+    }
+
+    /**
+     * Gets the time in milliseconds during which broadcast updates are
+     * collected and coalesced before they are delivered to the target UIs.
+     *
+     * @return the broadcast window in milliseconds, <code>0</code> to deliver
+     *         broadcasts right away
+     * @see com.vaadin.flow.server.VaadinService#getBroadcaster()
+     */
+    default int getBroadcastWindow() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_BROADCAST_WINDOW, 0,
+                Integer::parseInt);
+    }
+
+    /**
+     * Checks whether UIDL responses should be streamed to the client change by
+     * change instead of first building the complete response in memory.
+     *
+     * @return <code>true</code> to stream UIDL responses, <code>false</code>
+     *         to build them as JSON objects before writing
+     */
+    default boolean isStreamingUidl() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_STREAMING_UIDL, false);
+    }
+
+    /**
+     * Checks whether static resources are cached in memory in production
+     * mode.
+     *
+     * @return <code>true</code> to cache static resources, <code>false</code>
+     *         to look up and read them for every request
+     */
+    default boolean isStaticResourceCacheEnabled() {
+        return getBooleanProperty(
+                InitParameters.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE, false);
+    }
+
+    /**
+     * Gets the maximum size in bytes of static resources whose contents are
+     * kept in memory when the static resource cache is enabled.
+     *
+     * @return the maximum size of in-memory static resources in bytes
+     * @see #isStaticResourceCacheEnabled()
+     */
+    default int getStaticResourceCacheMaxFileSize() {
+        return getApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_MAX_FILE_SIZE,
+                256 * 1024, Integer::parseInt);
+    }
+
     default String getCompiledWebComponentsPath() {
         return getStringProperty(InitParameters.COMPILED_WEB_COMPONENTS_PATH,
                 "vaadin-web-components");
@@ -15,7 +15,9 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -83,4 +85,29 @@ public class ConstantPool implements Serializable {
         return json;
     }
 
+    /**
+     * Writes all new constants as a JSON object directly to the given writer
+     * and marks those constants as non-new. The output is equivalent to the
+     * serialized result of {@link #dumpConstants()}, but no intermediate JSON
+     * object is created.
+     *
+     * @param writer
+     *            the writer to write the JSON object to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    public void dumpConstants(Writer writer) throws IOException {
+        writer.write('{');
+        boolean first = true;
+        for (ConstantPoolKey key : newKeys) {
+            if (!first) {
+                writer.write(',');
+            }
+            first = false;
+            key.export(writer);
+        }
+        writer.write('}');
+        newKeys.clear();
+    }
+
 }
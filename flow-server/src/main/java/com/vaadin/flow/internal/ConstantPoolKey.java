@@ -15,11 +15,15 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.Writer;
 import java.nio.ByteBuffer;
-import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import elemental.json.Json;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 
@@ -31,14 +35,30 @@ import elemental.json.JsonValue;
  * This is a way of deduplicating JSON values that are expected to be sent to
  * the same client multiple times, since all references to the same JSON
  * structure will be encoded as the same id.
+ * <p>
+ * Use {@link #of(JsonValue)} to share a single key instance between all
+ * identical constants in the JVM.
  *
  * @author Vaadin Ltd
  * @since 1.0
  */
 public class ConstantPoolKey implements Serializable {
+    /**
+     * Upper bound for the number of interned keys. Constants are typically
+     * derived from application code, e.g. event data expressions, so the limit
+     * is only a safeguard against applications creating constants from
+     * unbounded data.
+     */
+    private static final int MAX_INTERNED_KEYS = 10000;
+
+    private static final Map<String, ConstantPoolKey> internedKeys = new ConcurrentHashMap<>();
+
     private final JsonValue json;
     private final String id;
 
+    // Serialized member, shared by all UIs that the key is exported to
+    private transient String exportedMember;
+
     /**
      * Creates a new constant pool key for the given JSON value. The value
      * should not be modified after this instance has been created since it
@@ -48,10 +68,44 @@ public class ConstantPoolKey implements Serializable {
      *            the JSON constant, not <code>null</code>
      */
     public ConstantPoolKey(JsonValue json) {
+        this(json, json.toJson());
+    }
+
+    private ConstantPoolKey(JsonValue json, String jsonString) {
         assert json != null;
         this.json = json;
 
-        id = calculateHash(json);
+        id = calculateHash(jsonString);
+    }
+
+    /**
+     * Gets a constant pool key for the given JSON value, reusing a previously
+     * created key for an identical value if there is one. The id of an
+     * interned key is only calculated once, no matter how many UIs use the
+     * key.
+     * <p>
+     * The value must not be modified after this method has been called since
+     * the key might be shared by the whole application.
+     *
+     * @param json
+     *            the JSON constant, not <code>null</code>
+     * @return a constant pool key for the value, not <code>null</code>
+     */
+    public static ConstantPoolKey of(JsonValue json) {
+        assert json != null;
+
+        String jsonString = json.toJson();
+        ConstantPoolKey key = internedKeys.get(jsonString);
+        if (key != null) {
+            return key;
+        }
+
+        key = new ConstantPoolKey(json, jsonString);
+        if (internedKeys.size() >= MAX_INTERNED_KEYS) {
+            return key;
+        }
+        ConstantPoolKey existing = internedKeys.putIfAbsent(jsonString, key);
+        return existing != null ? existing : key;
     }
 
     /**
@@ -73,31 +127,58 @@ public class ConstantPoolKey implements Serializable {
      *            <code>null</code>
      */
     public void export(JsonObject clientConstantPoolUpdate) {
-        assert id.equals(calculateHash(json)) : "Json value has been changed";
+        assert id.equals(calculateHash(json.toJson()))
+                : "Json value has been changed";
 
         clientConstantPoolUpdate.put(id, json);
     }
 
+    /**
+     * Exports this key as a JSON object member (<code>"id":value</code>)
+     * directly to the given writer. This method should be called only by the
+     * {@link ConstantPool} instance that manages this value.
+     *
+     * @param writer
+     *            the writer to write the member to, not <code>null</code>
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    void export(Writer writer) throws IOException {
+        assert id.equals(calculateHash(json.toJson()))
+                : "Json value has been changed";
+
+        String member = exportedMember;
+        if (member == null) {
+            /*
+             * The same key instance is typically exported to every UI that a
+             * shared value is sent to, so serialize the value only once. A race
+             * only causes the same string to be built twice.
+             */
+            member = Json.create(id).toJson() + ':' + json.toJson();
+            exportedMember = member;
+        }
+        writer.write(member);
+    }
+
     /**
      * Calculates the key of a JSON value by Base 64 encoding the first 64 bits
-     * of the SHA-256 digest of the JSON's string representation.
+     * of the 128-bit MurmurHash3 of the JSON's string representation.
      *
-     * @param json
-     *            the JSON to get a hash of, not <code>null</code>
+     * @param jsonString
+     *            the JSON string to get a hash of, not <code>null</code>
      * @return the key uniquely identifying the given JSON value
      */
-    private static String calculateHash(JsonValue json) {
-        byte[] digest = MessageDigestUtil.sha256(json.toJson());
+    private static String calculateHash(String jsonString) {
+        long[] hash = Murmur3HashUtil.hash128(jsonString);
 
         /*
          * Only use first 64 bits to keep id string short (1 in 100 000 000
          * collision risk with 500 000 items). 64 bits base64 -> 11 ASCII chars
          */
-        ByteBuffer truncatedDigest = ByteBuffer.wrap(digest, 0, 8);
-
-        ByteBuffer base64Bytes = Base64.getEncoder().encode(truncatedDigest);
+        byte[] truncatedHash = ByteBuffer.allocate(Long.BYTES).putLong(hash[0])
+                .array();
 
-        return StandardCharsets.US_ASCII.decode(base64Bytes).toString();
+        return Base64.getEncoder().encodeToString(truncatedHash);
     }
 
 }
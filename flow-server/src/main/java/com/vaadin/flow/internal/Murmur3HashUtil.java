@@ -0,0 +1,123 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+/**
+ * 128-bit MurmurHash3 (x64 variant) of strings. The hash is calculated over
+ * the UTF-16LE representation of the string without creating an intermediate
+ * byte array.
+ * <p>
+ * The hash is fast but not cryptographically secure, so it should only be
+ * used for deduplicating values that are not controlled by an attacker.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class Murmur3HashUtil {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private Murmur3HashUtil() {
+        // Static helpers only
+    }
+
+    /**
+     * Calculates the 128-bit hash of the given string.
+     *
+     * @param string
+     *            the string to hash, not <code>null</code>
+     * @return the hash as two longs, the first one holding the lower 64 bits
+     */
+    static long[] hash128(CharSequence string) {
+        int length = string.length();
+        int blockEnd = length - length % 8;
+
+        long h1 = 0;
+        long h2 = 0;
+
+        for (int i = 0; i < blockEnd; i += 8) {
+            long k1 = pack(string, i, 4);
+            long k2 = pack(string, i + 4, 4);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = length - blockEnd;
+        if (tail > 4) {
+            h2 ^= mixK2(pack(string, blockEnd + 4, tail - 4));
+        }
+        if (tail > 0) {
+            h1 ^= mixK1(pack(string, blockEnd, Math.min(tail, 4)));
+        }
+
+        // Length in bytes
+        h1 ^= length * 2L;
+        h2 ^= length * 2L;
+
+        h1 += h2;
+        h2 += h1;
+
+        h1 = fmix(h1);
+        h2 = fmix(h2);
+
+        h1 += h2;
+        h2 += h1;
+
+        return new long[] { h1, h2 };
+    }
+
+    private static long pack(CharSequence string, int start, int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value |= (long) string.charAt(start + i) << (16 * i);
+        }
+        return value;
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        return k1;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        return k2;
+    }
+
+    private static long fmix(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
@@ -22,12 +22,20 @@ import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -45,6 +53,36 @@ import static com.vaadin.flow.server.Constants.VAADIN_BUILD_FILES_PATH;
 public class ResponseWriter implements Serializable {
     private static final int DEFAULT_BUFFER_SIZE = 32 * 1024;
 
+    /**
+     * The maximum number of ranges served for one request. Requests for more
+     * ranges get the full resource, to avoid spending effort on a large
+     * number of tiny parts.
+     */
+    static final int MAX_RANGE_COUNT = 16;
+
+    private static final String RANGE_UNIT_PREFIX = "bytes=";
+
+    /**
+     * An inclusive byte range of a resource.
+     */
+    static final class ByteRange implements Serializable {
+        final long start;
+        final long end;
+
+        ByteRange(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long getLength() {
+            return end - start + 1;
+        }
+
+        String toContentRange(long totalLength) {
+            return "bytes " + start + "-" + end + "/" + totalLength;
+        }
+    }
+
     private final int bufferSize;
     private final boolean brotliEnabled;
 
@@ -150,6 +188,364 @@ public class ResponseWriter implements Serializable {
         }
     }
 
+    /**
+     * Selects the content encoding in which to send the given cached
+     * resource, based on the precompressed variants of the resource and the
+     * encodings accepted by the browser.
+     *
+     * @param resource
+     *            the cached resource, not <code>null</code>
+     * @param request
+     *            the request for the resource
+     * @return {@link StaticResourceCache#BROTLI},
+     *         {@link StaticResourceCache#GZIP}, or <code>null</code> to send
+     *         the resource uncompressed
+     */
+    public String getContentEncoding(StaticResourceCache.Resource resource,
+            HttpServletRequest request) {
+        if (brotliEnabled
+                && resource.hasEncoding(StaticResourceCache.BROTLI)
+                && acceptsBrotliResource(request)) {
+            return StaticResourceCache.BROTLI;
+        }
+        if (resource.hasEncoding(StaticResourceCache.GZIP)
+                && acceptsGzippedResource(request)) {
+            return StaticResourceCache.GZIP;
+        }
+        return null;
+    }
+
+    /**
+     * Writes the contents and content type (if available) of the given
+     * cached resource to the response. Contents that are held in memory are
+     * written directly, other contents are streamed from the resource URL.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param resource
+     *            the cached resource, not <code>null</code>
+     * @param encoding
+     *            the content encoding to send, as returned by
+     *            {@link #getContentEncoding(StaticResourceCache.Resource, HttpServletRequest)}
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @throws IOException
+     *             if opening the resource fails
+     */
+    public void writeResponseContents(String filenameWithPath,
+            StaticResourceCache.Resource resource, String encoding,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        writeContentType(filenameWithPath, request, response);
+        if (encoding != null) {
+            response.setHeader("Content-Encoding", encoding);
+        }
+        response.setContentLengthLong(resource.getLength(encoding));
+
+        byte[] bytes = resource.getBytes(encoding);
+        if (bytes != null) {
+            try {
+                response.getOutputStream().write(bytes);
+            } catch (IOException e) {
+                getLogger().debug("Error writing static file to user", e);
+            }
+            return;
+        }
+
+        InputStream dataStream = resource.getUrl(encoding).openStream();
+        try {
+            writeStream(response.getOutputStream(), dataStream);
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        } finally {
+            try {
+                dataStream.close();
+            } catch (IOException e) {
+                getLogger().debug("Error closing input stream for resource", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the byte ranges of the given resourceUrl requested by the
+     * <code>Range</code> header of the request, as a single or multipart
+     * partial response. The ranges are always taken from the uncompressed
+     * resource.
+     * <p>
+     * Nothing is written if the request has no valid <code>Range</code>
+     * header or the length of the resource is unknown, in which case the
+     * full resource should be written instead. Conditions such as
+     * <code>If-Range</code> should be checked before calling this method.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param resourceUrl
+     *            the URL to the file, reported by the servlet container
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @return <code>true</code> if a partial or a range not satisfiable
+     *         response was written, <code>false</code> otherwise
+     * @throws IOException
+     *             if opening the resource fails
+     */
+    public boolean writeRangeResponseContents(String filenameWithPath,
+            URL resourceUrl, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String rangeHeader = request.getHeader("Range");
+        if (rangeHeader == null) {
+            return false;
+        }
+        URLConnection connection = resourceUrl.openConnection();
+        InputStream dataStream = connection.getInputStream();
+        try {
+            long length = connection.getContentLengthLong();
+            List<ByteRange> ranges = length < 0 ? null
+                    : parseRanges(rangeHeader, length);
+            if (ranges == null) {
+                return false;
+            }
+            writeRanges(filenameWithPath, length, ranges, dataStream, request,
+                    response);
+            return true;
+        } finally {
+            try {
+                dataStream.close();
+            } catch (IOException e) {
+                getLogger().debug("Error closing input stream for resource", e);
+            }
+        }
+    }
+
+    /**
+     * Writes the byte ranges of the given cached resource requested by the
+     * <code>Range</code> header of the request, as a single or multipart
+     * partial response. The ranges are always taken from the uncompressed
+     * resource.
+     * <p>
+     * Nothing is written if the request has no valid <code>Range</code>
+     * header, in which case the full resource should be written instead.
+     * Conditions such as <code>If-Range</code> should be checked before
+     * calling this method.
+     *
+     * @param filenameWithPath
+     *            the name of the file being sent
+     * @param resource
+     *            the cached resource, not <code>null</code>
+     * @param request
+     *            the request object to read from
+     * @param response
+     *            the response object to write to
+     * @return <code>true</code> if a partial or a range not satisfiable
+     *         response was written, <code>false</code> otherwise
+     * @throws IOException
+     *             if opening the resource fails
+     */
+    public boolean writeRangeResponseContents(String filenameWithPath,
+            StaticResourceCache.Resource resource, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        long length = resource.getLength(null);
+        List<ByteRange> ranges = parseRanges(request.getHeader("Range"),
+                length);
+        if (ranges == null) {
+            return false;
+        }
+        byte[] bytes = resource.getBytes(null);
+        InputStream dataStream = bytes != null ? new ByteArrayInputStream(bytes)
+                : resource.getUrl(null).openStream();
+        try {
+            writeRanges(filenameWithPath, length, ranges, dataStream, request,
+                    response);
+        } finally {
+            try {
+                dataStream.close();
+            } catch (IOException e) {
+                getLogger().debug("Error closing input stream for resource", e);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the value of a <code>Range</code> header for a resource of the
+     * given length. Unsatisfiable ranges are left out and the remaining ones
+     * are sorted and coalesced.
+     * <p>
+     * Package private for testing purposes.
+     *
+     * @param rangeHeader
+     *            the value of the <code>Range</code> header, may be
+     *            <code>null</code>
+     * @param length
+     *            the length of the resource in bytes
+     * @return the ranges to send, an empty list if none of the ranges can be
+     *         satisfied, or <code>null</code> if the header should be ignored
+     */
+    static List<ByteRange> parseRanges(String rangeHeader, long length) {
+        if (rangeHeader == null || !rangeHeader.regionMatches(true, 0,
+                RANGE_UNIT_PREFIX, 0, RANGE_UNIT_PREFIX.length())) {
+            return null;
+        }
+        List<ByteRange> ranges = new ArrayList<>();
+        boolean hasRangeSpec = false;
+        for (String spec : rangeHeader.substring(RANGE_UNIT_PREFIX.length())
+                .split(",")) {
+            spec = spec.trim();
+            if (spec.isEmpty()) {
+                continue;
+            }
+            hasRangeSpec = true;
+            int dash = spec.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long start;
+            long end;
+            try {
+                if (dash == 0) {
+                    // Suffix range, the last N bytes
+                    long suffixLength = Long.parseLong(spec.substring(1));
+                    if (suffixLength < 0) {
+                        return null;
+                    }
+                    start = Math.max(0, length - suffixLength);
+                    end = length - 1;
+                } else {
+                    start = Long.parseLong(spec.substring(0, dash));
+                    String endValue = spec.substring(dash + 1);
+                    end = endValue.isEmpty() ? Long.MAX_VALUE
+                            : Long.parseLong(endValue);
+                    if (start < 0 || end < start) {
+                        return null;
+                    }
+                    end = Math.min(end, length - 1);
+                }
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (start < length && start <= end) {
+                ranges.add(new ByteRange(start, end));
+            }
+        }
+        if (!hasRangeSpec || ranges.size() > MAX_RANGE_COUNT) {
+            return null;
+        }
+
+        ranges.sort(Comparator.comparingLong(range -> range.start));
+        List<ByteRange> coalesced = new ArrayList<>(ranges.size());
+        for (ByteRange range : ranges) {
+            int last = coalesced.size() - 1;
+            if (last >= 0 && range.start <= coalesced.get(last).end + 1) {
+                ByteRange previous = coalesced.get(last);
+                coalesced.set(last, new ByteRange(previous.start,
+                        Math.max(previous.end, range.end)));
+            } else {
+                coalesced.add(range);
+            }
+        }
+        return coalesced;
+    }
+
+    private void writeRanges(String filenameWithPath, long length,
+            List<ByteRange> ranges, InputStream dataStream,
+            HttpServletRequest request, HttpServletResponse response) {
+        if (ranges.isEmpty()) {
+            response.setHeader("Content-Range", "bytes */" + length);
+            response.setStatus(
+                    HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.get(0);
+            writeContentType(filenameWithPath, request, response);
+            response.setHeader("Content-Range", range.toContentRange(length));
+            response.setContentLengthLong(range.getLength());
+            try {
+                skipFully(dataStream, range.start);
+                copyRange(response.getOutputStream(), dataStream,
+                        range.getLength());
+            } catch (IOException e) {
+                getLogger().debug("Error writing static file to user", e);
+            }
+            return;
+        }
+
+        String mimetype = request.getServletContext()
+                .getMimeType(filenameWithPath);
+        String boundary = Long
+                .toHexString(ThreadLocalRandom.current().nextLong());
+        List<byte[]> partHeaders = new ArrayList<>(ranges.size());
+        long contentLength = 0;
+        for (ByteRange range : ranges) {
+            StringBuilder partHeader = new StringBuilder();
+            partHeader.append("\r\n--").append(boundary).append("\r\n");
+            if (mimetype != null) {
+                partHeader.append("Content-Type: ").append(mimetype)
+                        .append("\r\n");
+            }
+            partHeader.append("Content-Range: ")
+                    .append(range.toContentRange(length)).append("\r\n\r\n");
+            byte[] partHeaderBytes = partHeader.toString()
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeaderBytes);
+            contentLength += partHeaderBytes.length + range.getLength();
+        }
+        byte[] end = ("\r\n--" + boundary + "--\r\n")
+                .getBytes(StandardCharsets.US_ASCII);
+        contentLength += end.length;
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        try {
+            OutputStream outputStream = response.getOutputStream();
+            long position = 0;
+            for (int i = 0; i < ranges.size(); i++) {
+                ByteRange range = ranges.get(i);
+                outputStream.write(partHeaders.get(i));
+                // Ranges are sorted and disjoint, so only skip forward
+                skipFully(dataStream, range.start - position);
+                copyRange(outputStream, dataStream, range.getLength());
+                position = range.end + 1;
+            }
+            outputStream.write(end);
+        } catch (IOException e) {
+            getLogger().debug("Error writing static file to user", e);
+        }
+    }
+
+    private static void skipFully(InputStream inputStream, long count)
+            throws IOException {
+        while (count > 0) {
+            long skipped = inputStream.skip(count);
+            if (skipped <= 0) {
+                if (inputStream.read() < 0) {
+                    throw new EOFException("Resource ended before range");
+                }
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+
+    private void copyRange(OutputStream outputStream, InputStream inputStream,
+            long count) throws IOException {
+        final byte[] buffer = new byte[(int) Math.min(bufferSize, count)];
+        while (count > 0) {
+            int bytes = inputStream.read(buffer, 0,
+                    (int) Math.min(buffer.length, count));
+            if (bytes < 0) {
+                throw new EOFException("Resource ended before range");
+            }
+            outputStream.write(buffer, 0, bytes);
+            count -= bytes;
+        }
+    }
+
     private URL getResource(HttpServletRequest request, String resource)
             throws MalformedURLException {
         URL url = request.getServletContext().getResource(resource);
@@ -166,6 +166,14 @@ public class StateNode implements Serializable {
 
     private boolean isInitialChanges = true;
 
+    /*
+     * Marker used by StateTree to track membership in its dirty node list and
+     * in the nodes collected during a change collection round without hash
+     * set lookups. Transient since the tree marks its dirty nodes again when
+     * deserialized.
+     */
+    transient StateTree.DirtyMarker dirtyMarker;
+
     private ArrayList<StateTree.BeforeClientResponseEntry> beforeClientResponseEntries;
     private boolean enabled = true;
 
@@ -213,8 +221,11 @@ public class StateNode implements Serializable {
                         additionalFeatureTypes), FeatureSet::new);
 
         features = null;
-        // Eagerly initialize features that should always be sent
-        reportableFeatureTypes.forEach(this::getFeature);
+        /*
+         * Features that should always be sent are initialized when the node is
+         * attached (see collectChanges) so that nodes which are never attached
+         * don't allocate features that are never used.
+         */
     }
 
     /**
@@ -604,6 +615,7 @@ public class StateNode implements Serializable {
 
                 // Make all changes show up as if the node was recently attached
                 clearChanges();
+                initializeReportedFeatures();
                 forEachFeature(NodeFeature::generateChangesFromEmpty);
             } else {
                 collector.accept(new NodeDetachChange(this));
@@ -625,8 +637,16 @@ public class StateNode implements Serializable {
             } else {
                 doCollectChanges(collector, getDisalowFeatures());
             }
-        } else {
+        } else if (changes != null) {
             doCollectChanges(collector, getInitializedFeatures());
+        } else {
+            isInitialChanges = false;
+        }
+    }
+
+    private void initializeReportedFeatures() {
+        for (Class<? extends NodeFeature> featureType : featureSet.reportedFeatures) {
+            getFeature(featureType);
         }
     }
 
@@ -738,8 +758,12 @@ public class StateNode implements Serializable {
                 id = newId;
                 initialAttach = true;
             } else if (newId != id) {
-                throw new IllegalStateException(
-                        "Can't change id once it has been assigned");
+                /*
+                 * The previous id was released when the node was detached and
+                 * has since been given to another node. The client has already
+                 * removed the node, so it is sent again with the new id.
+                 */
+                id = newId;
             }
 
         }
@@ -917,7 +941,21 @@ public class StateNode implements Serializable {
      * @see NodeFeature#allowsChanges()
      */
     public void updateActiveState() {
-        setInactive(getDisalowFeatures().count() != 0);
+        setInactive(hasDisallowingFeature());
+    }
+
+    private boolean hasDisallowingFeature() {
+        if (features == null) {
+            return false;
+        } else if (features instanceof NodeFeature) {
+            return !((NodeFeature) features).allowsChanges();
+        }
+        for (NodeFeature feature : (NodeFeature[]) features) {
+            if (feature != null && !feature.allowsChanges()) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
@@ -0,0 +1,223 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Id to node registry of a {@link StateTree}, backed by an array indexed by
+ * the node id.
+ * <p>
+ * Ids of unregistered nodes can be reused for new nodes, but only once the
+ * client has confirmed that it has received the response in which the nodes
+ * were removed. Until then the client may still send messages referring to
+ * the old node, which must not end up being delivered to another node.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+final class StateNodeRegistry implements Serializable {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * Value in {@link #releasedAt} for ids that can be handed out again.
+     */
+    private static final int REUSABLE = -1;
+
+    private StateNode[] nodes = new StateNode[INITIAL_CAPACITY];
+
+    /**
+     * Release state of each id: <code>0</code> for ids that are in use or have
+     * not been released, {@link #REUSABLE} for ids that can be reused and
+     * otherwise the sync id (plus one) of the response which tells the client
+     * that the id has been released.
+     */
+    private int[] releasedAt = new int[INITIAL_CAPACITY];
+
+    private int nextId = 1;
+
+    private int size;
+
+    // FIFO of released ids waiting for client confirmation, ordered by sync id
+    private int[] pendingIds = new int[INITIAL_CAPACITY];
+    private int[] pendingSyncIds = new int[INITIAL_CAPACITY];
+    private int pendingStart;
+    private int pendingEnd;
+
+    // Stack of ids that can be reused
+    private int[] reusableIds = new int[INITIAL_CAPACITY];
+    private int reusableCount;
+
+    /**
+     * Registers a node, preferably using the given id.
+     *
+     * @param node
+     *            the node to register, not <code>null</code>
+     * @param preferredId
+     *            the id the node previously had, or a non-positive value if
+     *            the node has not had an id
+     * @return the id assigned to the node
+     */
+    int register(StateNode node, int preferredId) {
+        int id;
+        if (preferredId > 0 && get(preferredId) == null) {
+            // Don't accept an id that we haven't yet handed out
+            assert preferredId < nextId;
+
+            id = preferredId;
+        } else {
+            id = nextFreeId();
+        }
+
+        nodes[id] = node;
+        // Any pending or reusable entries for the id are skipped from now on
+        releasedAt[id] = 0;
+        size++;
+
+        return id;
+    }
+
+    private int nextFreeId() {
+        while (reusableCount > 0) {
+            int id = reusableIds[--reusableCount];
+            if (releasedAt[id] == REUSABLE && nodes[id] == null) {
+                return id;
+            }
+        }
+
+        int id = nextId++;
+        if (id >= nodes.length) {
+            int capacity = nodes.length * 2;
+            nodes = Arrays.copyOf(nodes, capacity);
+            releasedAt = Arrays.copyOf(releasedAt, capacity);
+        }
+        return id;
+    }
+
+    /**
+     * Unregisters the node with the given id.
+     *
+     * @param id
+     *            the id of the node
+     * @param node
+     *            the node expected to have the given id
+     * @param syncId
+     *            the sync id of the response that will inform the client about
+     *            the removal, or a negative value if the id should never be
+     *            reused
+     * @return <code>true</code> if the node was unregistered,
+     *         <code>false</code> if the given node is not registered with
+     *         the id
+     */
+    boolean unregister(int id, StateNode node, int syncId) {
+        if (node == null || get(id) != node) {
+            return false;
+        }
+
+        nodes[id] = null;
+        size--;
+
+        if (syncId >= 0) {
+            releasedAt[id] = syncId + 1;
+            if (pendingEnd == pendingIds.length) {
+                compactPending();
+            }
+            pendingIds[pendingEnd] = id;
+            pendingSyncIds[pendingEnd] = syncId;
+            pendingEnd++;
+        }
+        return true;
+    }
+
+    private void compactPending() {
+        int count = pendingEnd - pendingStart;
+        int capacity = count * 2 > pendingIds.length ? pendingIds.length * 2
+                : pendingIds.length;
+        int[] ids = new int[capacity];
+        int[] syncIds = new int[capacity];
+        System.arraycopy(pendingIds, pendingStart, ids, 0, count);
+        System.arraycopy(pendingSyncIds, pendingStart, syncIds, 0, count);
+        pendingIds = ids;
+        pendingSyncIds = syncIds;
+        pendingStart = 0;
+        pendingEnd = count;
+    }
+
+    /**
+     * Makes ids released in responses up to the given sync id available for
+     * reuse.
+     *
+     * @param clientSyncId
+     *            the sync id of the latest response the client has processed
+     */
+    void confirm(int clientSyncId) {
+        while (pendingStart < pendingEnd
+                && pendingSyncIds[pendingStart] <= clientSyncId) {
+            int id = pendingIds[pendingStart];
+            if (releasedAt[id] == pendingSyncIds[pendingStart] + 1) {
+                releasedAt[id] = REUSABLE;
+                if (reusableCount == reusableIds.length) {
+                    reusableIds = Arrays.copyOf(reusableIds,
+                            reusableIds.length * 2);
+                }
+                reusableIds[reusableCount++] = id;
+            }
+            pendingStart++;
+        }
+        if (pendingStart == pendingEnd) {
+            pendingStart = 0;
+            pendingEnd = 0;
+        }
+    }
+
+    /**
+     * Gets the node with the given id.
+     *
+     * @param id
+     *            the node id
+     * @return the node, or <code>null</code> if no node is registered with
+     *         the id
+     */
+    StateNode get(int id) {
+        if (id <= 0 || id >= nodes.length) {
+            return null;
+        }
+        return nodes[id];
+    }
+
+    /**
+     * Gets the number of registered nodes.
+     *
+     * @return the number of registered nodes
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Gets the number of id slots currently allocated, i.e. the highest id
+     * handed out so far plus one.
+     *
+     * @return the number of allocated id slots
+     */
+    int getIdCapacity() {
+        return nextId;
+    }
+}
@@ -16,14 +16,15 @@
 
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
@@ -131,11 +132,36 @@ public class StateTree implements NodeOwner {
         void remove();
     }
 
-    private Set<StateNode> dirtyNodes = new LinkedHashSet<>();
+    /**
+     * Marker identifying the nodes that belong to a specific dirty node list or
+     * that have been collected in a specific change collection round. A new
+     * marker is created whenever a list is reset, so that resetting doesn't
+     * need to visit the nodes in the list.
+     */
+    static final class DirtyMarker implements Serializable {
+    }
+
+    /**
+     * Dirty nodes in the order they were marked dirty. Membership is tracked
+     * through {@link StateNode#dirtyMarker} instead of a hash set, and the list
+     * instance is recycled between collection rounds.
+     */
+    private ArrayList<StateNode> dirtyNodes = new ArrayList<>();
+
+    private transient DirtyMarker dirtyMarker = new DirtyMarker();
 
-    private final Map<Integer, StateNode> idToNode = new HashMap<>();
+    // Marker of the nodes collected by an ongoing collectChanges call
+    private transient DirtyMarker collectMarker;
 
-    private int nextId = 1;
+    // Spare list swapped with dirtyNodes while collecting changes
+    private ArrayList<StateNode> collectedDirtyNodes = new ArrayList<>();
+
+    // Nodes to collect changes from during collectChanges, kept for reuse
+    private final ArrayList<StateNode> changedNodes = new ArrayList<>();
+
+    private final StateNodeRegistry nodeRegistry = new StateNodeRegistry();
+
+    private boolean idReuseEnabled;
 
     private Set<StateNode> pendingExecutionNodes = new HashSet<>();
 
@@ -180,21 +206,8 @@ public class StateTree implements NodeOwner {
     public int register(StateNode node) {
         assert node.getOwner() == this;
 
-        int id = node.getId();
-
-        int nodeId;
-        if (id > 0 && !idToNode.containsKey(id)) {
-            // Node already had an id, continue using it
-
-            // Don't accept an id that we haven't yet handed out
-            assert id < nextId;
-
-            nodeId = id;
-        } else {
-            nodeId = nextId++;
-        }
-
-        idToNode.put(nodeId, node);
+        // Continues using the id if the node already had one that is free
+        int nodeId = nodeRegistry.register(node, node.getId());
 
         if (node.hasBeforeClientResponseEntries()) {
             pendingExecutionNodes.add(node);
@@ -207,16 +220,13 @@ public class StateTree implements NodeOwner {
     public void unregister(StateNode node) {
         assert node.getOwner() == this;
 
-        Integer id = node.getId();
-
-        StateNode removedNode = idToNode.remove(id);
+        /*
+         * The removal is sent to the client in the next response, so the id
+         * can be reused once the client has confirmed that response
+         */
+        int syncId = idReuseEnabled ? uiInternals.getServerSyncId() : -1;
 
-        if (removedNode != node) {
-            // Remove by id didn't remove the expected node
-            if (removedNode != null) {
-                // Put the old node back
-                idToNode.put(removedNode.getId(), removedNode);
-            }
+        if (!nodeRegistry.unregister(node.getId(), node, syncId)) {
             throw new IllegalStateException(
                     "Unregistered node was not found based on its id. The tree is most likely corrupted.");
         }
@@ -227,7 +237,7 @@ public class StateTree implements NodeOwner {
     @Override
     public boolean hasNode(StateNode node) {
         assert node.getOwner() == this;
-        return idToNode.containsKey(node.getId());
+        return nodeRegistry.get(node.getId()) == node;
     }
 
     /**
@@ -240,7 +250,50 @@ public class StateTree implements NodeOwner {
      *         registered with this tree
      */
     public StateNode getNodeById(int id) {
-        return idToNode.get(id);
+        return nodeRegistry.get(id);
+    }
+
+    /**
+     * Gets the number of nodes currently registered with this tree.
+     *
+     * @return the number of registered nodes
+     */
+    public int getNodeCount() {
+        return nodeRegistry.size();
+    }
+
+    /**
+     * Gets the number of node ids allocated by this tree, i.e. the size of the
+     * id space used for looking up nodes. Ids of removed nodes are reused, so
+     * this is normally close to {@link #getNodeCount()}.
+     *
+     * @return the number of allocated node ids
+     */
+    public int getNodeIdCapacity() {
+        return nodeRegistry.getIdCapacity();
+    }
+
+    /**
+     * Informs the tree about the sync id of the latest response that the
+     * client has processed, as sent by the client along with its messages.
+     * Ids of nodes removed in that response or earlier are thereafter reused
+     * for new nodes.
+     * <p>
+     * Ids are not reused until this method has been called for the first
+     * time, which means that they are never reused when sync id checking is
+     * disabled.
+     *
+     * @param clientSyncId
+     *            the sync id received from the client, <code>-1</code> if
+     *            unknown
+     * @see com.vaadin.flow.component.internal.UIInternals#getServerSyncId()
+     */
+    public void confirmClientSyncId(int clientSyncId) {
+        if (clientSyncId < 0) {
+            return;
+        }
+        idReuseEnabled = true;
+        nodeRegistry.confirm(clientSyncId);
     }
 
     /**
@@ -257,20 +310,38 @@ public class StateTree implements NodeOwner {
      *            a consumer accepting node changes
      */
     public void collectChanges(Consumer<NodeChange> collector) {
-        Set<StateNode> allDirtyNodes = new LinkedHashSet<>();
+        collectMarker = new DirtyMarker();
         boolean evaluateNewDirtyNodes = true;
 
-        // The updateActiveState method can create new dirty nodes, so they need
-        // to be collected as well
-        while (evaluateNewDirtyNodes) {
-            Set<StateNode> dirtyNodesSet = doCollectDirtyNodes(true);
-            dirtyNodesSet.forEach(StateNode::updateActiveState);
-            evaluateNewDirtyNodes = allDirtyNodes.addAll(dirtyNodesSet);
-        }
+        try {
+            // The updateActiveState method can create new dirty nodes, so they
+            // need to be collected as well
+            while (evaluateNewDirtyNodes) {
+                List<StateNode> dirtyNodesList = swapDirtyNodes();
+                dirtyNodesList.forEach(StateNode::updateActiveState);
+
+                evaluateNewDirtyNodes = false;
+                for (StateNode node : dirtyNodesList) {
+                    if (node.dirtyMarker != collectMarker) {
+                        node.dirtyMarker = collectMarker;
+                        changedNodes.add(node);
+                        evaluateNewDirtyNodes = true;
+                    }
+                }
+                dirtyNodesList.clear();
+            }
 
-        // TODO fire preCollect events
+            // TODO fire preCollect events
 
-        allDirtyNodes.forEach(node -> node.collectChanges(collector));
+            for (StateNode node : changedNodes) {
+                node.collectChanges(collector);
+            }
+        } finally {
+            changedNodes.clear();
+            collectedDirtyNodes.clear();
+            collectMarker = null;
+            remarkDirtyNodes();
+        }
     }
 
     @Override
@@ -278,16 +349,33 @@ public class StateTree implements NodeOwner {
         assert node.getOwner() == this;
         checkHasLock();
 
-        dirtyNodes.add(node);
+        DirtyMarker marker = node.dirtyMarker;
+        if (marker != dirtyMarker) {
+            /*
+             * A node already collected by an ongoing collectChanges call keeps
+             * its collect marker so that it isn't collected twice. It may then
+             * end up in the list more than once, which remarkDirtyNodes fixes
+             * once the collection is done.
+             */
+            if (collectMarker == null || marker != collectMarker) {
+                node.dirtyMarker = dirtyMarker;
+            }
+            dirtyNodes.add(node);
+        }
     }
 
     /**
      * Gets all the nodes that have been marked.
+     * <p>
+     * The returned set is a copy, so this method shouldn't be used in
+     * performance sensitive code. {@link #collectChanges(Consumer)} uses the
+     * dirty nodes without copying them.
      *
-     * @return a set of dirty nodes, in the order they were marked dirty
+     * @return a read-only set of dirty nodes, in the order they were marked
+     *         dirty
      */
     public Set<StateNode> collectDirtyNodes() {
-        return doCollectDirtyNodes(false);
+        return Collections.unmodifiableSet(new LinkedHashSet<>(dirtyNodes));
     }
 
     /**
@@ -410,21 +498,43 @@ public class StateTree implements NodeOwner {
     }
 
     /**
-     * Gets all the nodes that have been marked as dirty.
-     * <p>
-     * If {@code reset} is {@code true} then dirty nodes collection is reset.
+     * Replaces the current dirty node list with an empty one and returns the
+     * previous list. The returned list should be cleared by the caller once it
+     * has been processed so that it can be reused for the next swap.
      *
-     * @return a set of dirty nodes, in the order they were marked dirty
+     * @return the list of nodes that were dirty, in the order they were marked
+     *         dirty
      */
-    private Set<StateNode> doCollectDirtyNodes(boolean reset) {
-        if (reset) {
-            Set<StateNode> collectedNodes = dirtyNodes;
-            dirtyNodes = new LinkedHashSet<>();
-            return collectedNodes;
-        } else {
-            return Collections.unmodifiableSet(dirtyNodes);
+    private List<StateNode> swapDirtyNodes() {
+        ArrayList<StateNode> previous = dirtyNodes;
+        dirtyNodes = collectedDirtyNodes;
+        collectedDirtyNodes = previous;
+        dirtyMarker = new DirtyMarker();
+        return previous;
+    }
+
+    /**
+     * Marks the nodes in the dirty node list with a new marker and removes any
+     * duplicates from the list.
+     */
+    private void remarkDirtyNodes() {
+        dirtyMarker = new DirtyMarker();
+        int size = 0;
+        for (int i = 0; i < dirtyNodes.size(); i++) {
+            StateNode node = dirtyNodes.get(i);
+            if (node.dirtyMarker != dirtyMarker) {
+                node.dirtyMarker = dirtyMarker;
+                dirtyNodes.set(size++, node);
+            }
         }
+        dirtyNodes.subList(size, dirtyNodes.size()).clear();
+    }
 
+    private void readObject(ObjectInputStream stream)
+            throws IOException, ClassNotFoundException {
+        stream.defaultReadObject();
+        // The markers of the nodes are transient
+        remarkDirtyNodes();
     }
 
     /**
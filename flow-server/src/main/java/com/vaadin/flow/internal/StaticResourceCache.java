@@ -0,0 +1,291 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.vaadin.flow.function.SerializableFunction;
+
+/**
+ * Caches the metadata of static resources that cannot change while the
+ * application is running, i.e. in production mode, together with the
+ * contents of small resources and of their precompressed <code>.gz</code>
+ * and <code>.br</code> variants. Each resource is looked up, read and hashed
+ * once, on the first request for it.
+ * <p>
+ * For internal use only. May be renamed or removed in a future release.
+ *
+ * @author Vaadin Ltd
+ * @since
+ */
+public class StaticResourceCache implements Serializable {
+
+    /**
+     * Content encoding of Brotli compressed resources.
+     */
+    public static final String BROTLI = "br";
+
+    /**
+     * Content encoding of gzip compressed resources.
+     */
+    public static final String GZIP = "gzip";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final int maxCachedContentSize;
+
+    private final Map<String, Resource> resources = new ConcurrentHashMap<>();
+
+    /**
+     * A cached static resource.
+     */
+    public static final class Resource implements Serializable {
+        private final long lastModified;
+        private final String hash;
+        private final Content content;
+        private final Content gzipContent;
+        private final Content brotliContent;
+
+        private Resource(long lastModified, String hash, Content content,
+                Content gzipContent, Content brotliContent) {
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.content = content;
+            this.gzipContent = gzipContent;
+            this.brotliContent = brotliContent;
+        }
+
+        /**
+         * Gets the last modification time of the resource, in full seconds.
+         *
+         * @return the last modification time in milliseconds, or
+         *         <code>-1</code> if not known
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Gets the strong entity tag of the given encoding of the resource.
+         *
+         * @param encoding
+         *            the content encoding, or <code>null</code> for the
+         *            uncompressed resource
+         * @return the quoted entity tag
+         */
+        public String getETag(String encoding) {
+            return encoding == null ? '"' + hash + '"'
+                    : '"' + hash + '-' + encoding + '"';
+        }
+
+        /**
+         * Checks whether the resource has a precompressed variant in the
+         * given encoding.
+         *
+         * @param encoding
+         *            {@link StaticResourceCache#GZIP} or
+         *            {@link StaticResourceCache#BROTLI}
+         * @return <code>true</code> if there is a variant in the encoding
+         */
+        public boolean hasEncoding(String encoding) {
+            return getContent(encoding) != null;
+        }
+
+        /**
+         * Checks whether the resource has any precompressed variants.
+         *
+         * @return <code>true</code> if there is a compressed variant
+         */
+        public boolean hasCompressedVariants() {
+            return gzipContent != null || brotliContent != null;
+        }
+
+        /**
+         * Gets the length of the given encoding of the resource.
+         *
+         * @param encoding
+         *            the content encoding, or <code>null</code> for the
+         *            uncompressed resource
+         * @return the length in bytes
+         */
+        public long getLength(String encoding) {
+            return getContent(encoding).length;
+        }
+
+        /**
+         * Gets the cached contents of the given encoding of the resource.
+         *
+         * @param encoding
+         *            the content encoding, or <code>null</code> for the
+         *            uncompressed resource
+         * @return the contents, or <code>null</code> if the resource is too
+         *         large to be kept in memory
+         */
+        public byte[] getBytes(String encoding) {
+            return getContent(encoding).bytes;
+        }
+
+        /**
+         * Gets the URL of the given encoding of the resource.
+         *
+         * @param encoding
+         *            the content encoding, or <code>null</code> for the
+         *            uncompressed resource
+         * @return the URL of the resource
+         */
+        public URL getUrl(String encoding) {
+            return getContent(encoding).url;
+        }
+
+        private Content getContent(String encoding) {
+            if (encoding == null) {
+                return content;
+            } else if (GZIP.equals(encoding)) {
+                return gzipContent;
+            } else if (BROTLI.equals(encoding)) {
+                return brotliContent;
+            }
+            return null;
+        }
+    }
+
+    private static final class Content implements Serializable {
+        private final URL url;
+        private final long length;
+        private final byte[] bytes;
+
+        private Content(URL url, long length, byte[] bytes) {
+            this.url = url;
+            this.length = length;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maxCachedContentSize
+     *            the maximum size in bytes of resources whose contents are
+     *            kept in memory
+     */
+    public StaticResourceCache(int maxCachedContentSize) {
+        this.maxCachedContentSize = maxCachedContentSize;
+    }
+
+    /**
+     * Gets the cached resource for the given path, looking it up and reading
+     * it on the first request. Resources that are not found are not cached.
+     *
+     * @param filenameWithPath
+     *            the requested path of the resource
+     * @param resolver
+     *            function that finds the URL of a resource path, or returns
+     *            <code>null</code> if there is no such resource
+     * @return the cached resource, or <code>null</code> if the resource was
+     *         not found
+     * @throws IOException
+     *             if reading the resource fails
+     */
+    public Resource get(String filenameWithPath,
+            SerializableFunction<String, URL> resolver) throws IOException {
+        Resource resource = resources.get(filenameWithPath);
+        if (resource != null) {
+            return resource;
+        }
+        URL url = resolver.apply(filenameWithPath);
+        if (url == null) {
+            return null;
+        }
+        try {
+            return resources.computeIfAbsent(filenameWithPath, path -> {
+                try {
+                    return readResource(url, path, resolver);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private Resource readResource(URL url, String filenameWithPath,
+            SerializableFunction<String, URL> resolver) throws IOException {
+        MessageDigest digest = MessageDigestUtil.getSha256();
+        long lastModified;
+        Content content;
+        URLConnection connection = url.openConnection();
+        try (InputStream stream = connection.getInputStream()) {
+            lastModified = connection.getLastModified();
+            content = readContent(url, stream, digest);
+        }
+        // Milliseconds are not sent by browsers in If-Modified-Since
+        lastModified = lastModified > 0
+                ? lastModified - lastModified % 1000
+                : -1L;
+        String hash = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(digest.digest());
+
+        return new Resource(lastModified, hash, content,
+                readVariant(filenameWithPath + ".gz", resolver),
+                readVariant(filenameWithPath + ".br", resolver));
+    }
+
+    private Content readVariant(String filenameWithPath,
+            SerializableFunction<String, URL> resolver) throws IOException {
+        URL url = resolver.apply(filenameWithPath);
+        if (url == null) {
+            return null;
+        }
+        try (InputStream stream = url.openStream()) {
+            return readContent(url, stream, null);
+        }
+    }
+
+    private Content readContent(URL url, InputStream stream,
+            MessageDigest digest) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long length = 0;
+        int read;
+        while ((read = stream.read(buffer)) >= 0) {
+            if (digest != null) {
+                digest.update(buffer, 0, read);
+            }
+            length += read;
+            if (bytes != null) {
+                if (length > maxCachedContentSize) {
+                    // Too large to keep in memory, only the length is needed
+                    bytes = null;
+                } else {
+                    bytes.write(buffer, 0, read);
+                }
+            }
+        }
+        return new Content(url, length,
+                bytes == null ? null : bytes.toByteArray());
+    }
+}
@@ -22,6 +22,7 @@ import com.vaadin.flow.component.ComponentUtil;
 import com.vaadin.flow.component.Composite;
 import com.vaadin.flow.component.polymertemplate.PolymerTemplate;
 import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
 
 /**
  * A server side only node feature for mapping a node to a component.
@@ -67,6 +68,11 @@ public class ComponentMapping extends ServerSideFeature {
             getNode().getFeature(PolymerServerEventHandlers.class)
                     .componentSet((PolymerTemplate<?>) component);
         }
+        if (getNode().isAttached()) {
+            // Components mapped to an attached node get no attach event
+            ((StateTree) getNode().getOwner()).getUI().getInternals()
+                    .addNavigationObserver(component);
+        }
     }
 
     /**
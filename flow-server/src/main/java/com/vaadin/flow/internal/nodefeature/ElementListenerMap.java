@@ -380,7 +380,7 @@ public class ElementListenerMap extends NodeMap {
             JsonObject eventSettingsJson = JsonUtils.createObject(eventSettings,
                     ExpressionSettings::toJson);
 
-            ConstantPoolKey constantPoolKey = new ConstantPoolKey(
+            ConstantPoolKey constantPoolKey = ConstantPoolKey.of(
                     eventSettingsJson);
 
             put(eventType, constantPoolKey);
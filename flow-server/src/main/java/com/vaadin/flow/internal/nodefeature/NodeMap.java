@@ -17,13 +17,19 @@
 package com.vaadin.flow.internal.nodefeature;
 
 import java.io.Serializable;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -44,6 +50,15 @@ public abstract class NodeMap extends NodeFeature {
     private static final Serializable REMOVED_MARKER = new UniqueSerializable() {
     };
 
+    /**
+     * Upper bound for the number of shared key instances. Keys are typically
+     * attribute and property names, so the limit is only a safeguard against
+     * keys created from unbounded data.
+     */
+    private static final int MAX_INTERNED_KEYS = 10000;
+
+    private static final Map<String, String> internedKeys = new ConcurrentHashMap<>();
+
     private interface Values extends Serializable {
         int size();
 
@@ -112,6 +127,183 @@ public abstract class NodeMap extends NodeFeature {
         }
     }
 
+    /**
+     * Values stored in key and value arrays that are scanned linearly. Uses
+     * far less memory than a hash map for the small number of keys most maps
+     * have, and since keys are interned, the scan mostly compares references.
+     */
+    private static class ArrayMapValues extends AbstractSet<String>
+            implements Values {
+
+        private static final int MAX_SIZE = 8;
+
+        private String[] keys;
+
+        private Serializable[] values;
+
+        private int size;
+
+        // Number of added and removed keys, for failing fast in iterators
+        private int modCount;
+
+        public ArrayMapValues(Values previousValues) {
+            keys = new String[4];
+            values = new Serializable[4];
+            previousValues.keySet()
+                    .forEach(key -> set(key, previousValues.get(key)));
+        }
+
+        private int indexOf(String key) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size == 0;
+        }
+
+        @Override
+        public Serializable get(String key) {
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public Set<String> keySet() {
+            return this;
+        }
+
+        @Override
+        public boolean contains(Object key) {
+            return key instanceof String && containsKey((String) key);
+        }
+
+        @Override
+        public boolean remove(Object key) {
+            if (!contains(key)) {
+                return false;
+            }
+            removeKey((String) key);
+            return true;
+        }
+
+        @Override
+        public Iterator<String> iterator() {
+            return new KeyIterator(this);
+        }
+
+        @Override
+        public boolean containsKey(String key) {
+            return indexOf(key) >= 0;
+        }
+
+        @Override
+        public Stream<Serializable> streamValues() {
+            return Arrays.stream(values, 0, size);
+        }
+
+        @Override
+        public void set(String key, Serializable value) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                values[index] = value;
+                return;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            modCount++;
+        }
+
+        /**
+         * Removes the given key and its value.
+         *
+         * @param key
+         *            the key to remove
+         * @return the removed value, <code>null</code> if no value was removed
+         */
+        public Serializable removeKey(String key) {
+            int index = indexOf(key);
+            return index < 0 ? null : removeAt(index);
+        }
+
+        private Serializable removeAt(int index) {
+            Serializable oldValue = values[index];
+            size--;
+            modCount++;
+            System.arraycopy(keys, index + 1, keys, index, size - index);
+            System.arraycopy(values, index + 1, values, index, size - index);
+            keys[size] = null;
+            values[size] = null;
+            return oldValue;
+        }
+    }
+
+    /**
+     * Fail-fast iterator over the keys of {@link ArrayMapValues}.
+     */
+    private static class KeyIterator implements Iterator<String>, Serializable {
+        private final ArrayMapValues mapValues;
+
+        private int index;
+
+        private int lastIndex = -1;
+
+        private int expectedModCount;
+
+        private KeyIterator(ArrayMapValues mapValues) {
+            this.mapValues = mapValues;
+            expectedModCount = mapValues.modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < mapValues.size;
+        }
+
+        @Override
+        public String next() {
+            checkForModification();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            lastIndex = index++;
+            return mapValues.keys[lastIndex];
+        }
+
+        @Override
+        public void remove() {
+            if (lastIndex < 0) {
+                throw new IllegalStateException();
+            }
+            checkForModification();
+            mapValues.removeAt(lastIndex);
+            index = lastIndex;
+            lastIndex = -1;
+            expectedModCount = mapValues.modCount;
+        }
+
+        private void checkForModification() {
+            if (mapValues.modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
     private static class HashMapValues extends HashMap<String, Serializable>
             implements Values {
 
@@ -197,14 +389,19 @@ public abstract class NodeMap extends NodeFeature {
             setUnChanged(key);
         }
 
-        // Optimize memory use when there's only one key
+        // Optimize memory use when there's only one key or only a few keys
         if (values == null) {
-            values = new SingleValue(key, value);
+            values = new SingleValue(internKey(key), value);
+        } else if (values.containsKey(key)) {
+            values.set(key, value);
         } else {
-            if (values instanceof SingleValue && !values.containsKey(key)) {
+            if (values instanceof SingleValue) {
+                values = new ArrayMapValues(values);
+            } else if (values instanceof ArrayMapValues
+                    && values.size() == ArrayMapValues.MAX_SIZE) {
                 values = new HashMapValues(values);
             }
-            values.set(key, value);
+            values.set(internKey(key), value);
         }
 
         detatchPotentialChild(oldValue);
@@ -348,6 +545,13 @@ public abstract class NodeMap extends NodeFeature {
             if (values.containsKey(key)) {
                 values = null;
             }
+        } else if (values instanceof ArrayMapValues) {
+            ArrayMapValues arrayMapValues = (ArrayMapValues) values;
+            oldValue = arrayMapValues.removeKey(key);
+
+            if (arrayMapValues.isEmpty()) {
+                values = null;
+            }
         } else {
             assert values instanceof HashMapValues;
             HashMapValues hashMapValues = (HashMapValues) values;
@@ -372,6 +576,18 @@ public abstract class NodeMap extends NodeFeature {
         }
     }
 
+    private static String internKey(String key) {
+        String interned = internedKeys.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        if (internedKeys.size() >= MAX_INTERNED_KEYS) {
+            return key;
+        }
+        interned = internedKeys.putIfAbsent(key, key);
+        return interned != null ? interned : key;
+    }
+
     private void setUnChanged(String key) {
         assert key != null;
         getChangeTracker().remove(key);
@@ -506,4 +722,9 @@ public abstract class NodeMap extends NodeFeature {
         return values instanceof SingleValue;
     }
 
+    // Exposed for testing purposes
+    boolean usesArrayMap() {
+        return values instanceof ArrayMapValues;
+    }
+
 }
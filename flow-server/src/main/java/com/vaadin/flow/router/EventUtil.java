@@ -17,6 +17,7 @@ package com.vaadin.flow.router;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Set;
@@ -33,6 +34,7 @@ import com.vaadin.flow.dom.NodeVisitor;
 import com.vaadin.flow.dom.ShadowRoot;
 import com.vaadin.flow.i18n.LocaleChangeEvent;
 import com.vaadin.flow.i18n.LocaleChangeObserver;
+import com.vaadin.flow.internal.StateNode;
 
 /**
  * Event handling utilities.
@@ -182,7 +184,7 @@ public final class EventUtil {
      * @return navigation listeners
      */
     public static List<BeforeLeaveObserver> collectBeforeLeaveObservers(UI ui) {
-        return getImplementingComponents(flattenDescendants(ui.getElement()),
+        return getImplementingComponents(flattenNavigationObservers(ui),
                 BeforeLeaveObserver.class).collect(Collectors.toList());
     }
 
@@ -196,7 +198,7 @@ public final class EventUtil {
      */
     public static List<AfterNavigationObserver> collectAfterNavigationObservers(
             UI ui) {
-        return getImplementingComponents(flattenDescendants(ui.getElement()),
+        return getImplementingComponents(flattenNavigationObservers(ui),
                 AfterNavigationObserver.class).collect(Collectors.toList());
 
     }
@@ -299,6 +301,28 @@ public final class EventUtil {
         node.accept(new DescendantsVisitor(descendants, filter));
     }
 
+    /**
+     * Collects the elements of the navigation observers registered in the UI
+     * in tree order. Only the branches leading to a registered observer are
+     * visited instead of the whole element tree.
+     */
+    private static Stream<Element> flattenNavigationObservers(UI ui) {
+        Collection<Component> observers = ui.getInternals()
+                .getNavigationObservers();
+        if (observers.isEmpty()) {
+            return Stream.empty();
+        }
+        Set<StateNode> branches = new HashSet<>();
+        for (Component observer : observers) {
+            StateNode node = observer.getElement().getNode();
+            while (node != null && branches.add(node)) {
+                node = node.getParent();
+            }
+        }
+        return flattenDescendants(ui.getElement(),
+                element -> branches.contains(element.getNode()));
+    }
+
     private static Stream<Element> flattenDescendants(Element element) {
         return flattenDescendants(element, item -> true);
     }
@@ -79,8 +79,26 @@ public abstract class AbstractRouteRegistry implements RouteRegistry {
     private volatile ConfiguredRoutes configuredRoutes = new ConfiguredRoutes();
     private volatile ConfigureRoutes editing = null;
 
+    /**
+     * Registered routes collected from a published configuration. Published
+     * configurations are immutable, so the routes are reused until the
+     * configuration is replaced.
+     */
+    private transient volatile RegisteredRoutes registeredRoutes;
+
     private CopyOnWriteArrayList<RoutesChangedListener> routesChangedListeners = new CopyOnWriteArrayList<>();
 
+    private static final class RegisteredRoutes implements Serializable {
+        private final ConfiguredRoutes configuration;
+        private final List<RouteData> routes;
+
+        private RegisteredRoutes(ConfiguredRoutes configuration,
+                List<RouteData> routes) {
+            this.configuration = configuration;
+            this.routes = routes;
+        }
+    }
+
     /**
      * Thread-safe update of the RouteConfiguration.
      *
@@ -124,9 +142,9 @@ public abstract class AbstractRouteRegistry implements RouteRegistry {
 
                 if (!routesChangedListeners.isEmpty()) {
                     List<RouteBaseData<?>> oldRoutes = flattenRoutes(
-                            getRegisteredRoutes(oldConfiguration));
+                            getPublishedRoutes(oldConfiguration));
                     List<RouteBaseData<?>> newRoutes = flattenRoutes(
-                            getRegisteredRoutes(configuredRoutes));
+                            getPublishedRoutes(configuredRoutes));
                     List<RouteBaseData<?>> added = new ArrayList<>();
                     List<RouteBaseData<?>> removed = new ArrayList<>();
 
@@ -187,7 +205,23 @@ public abstract class AbstractRouteRegistry implements RouteRegistry {
 
     @Override
     public List<RouteData> getRegisteredRoutes() {
-        return getRegisteredRoutes(getConfiguration());
+        ConfiguredRoutes configuration = getConfiguration();
+        if (configuration == editing) {
+            // The configuration is being changed by this thread
+            return getRegisteredRoutes(configuration);
+        }
+        return getPublishedRoutes(configuration);
+    }
+
+    private List<RouteData> getPublishedRoutes(
+            ConfiguredRoutes configuration) {
+        RegisteredRoutes cached = registeredRoutes;
+        if (cached == null || cached.configuration != configuration) {
+            cached = new RegisteredRoutes(configuration,
+                    getRegisteredRoutes(configuration));
+            registeredRoutes = cached;
+        }
+        return cached.routes;
     }
 
     private List<RouteData> getRegisteredRoutes(
@@ -18,6 +18,7 @@ package com.vaadin.flow.router.internal;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -36,10 +37,22 @@ import com.vaadin.flow.server.InvalidRouteConfigurationException;
  */
 class RouteModel implements Serializable {
 
+    /**
+     * Maximum number of navigation urls whose search results are cached by
+     * an immutable model.
+     */
+    static final int NAVIGATION_CACHE_SIZE = 256;
+
     private boolean mutable;
 
     private RouteSegment root;
 
+    /**
+     * Recent search results by navigation url, only used when the model is
+     * immutable. Guarded by itself.
+     */
+    private transient Map<String, NavigationRouteTarget> navigationCache;
+
     private RouteModel(boolean mutable) {
         this(RouteSegment.createRoot(), mutable);
     }
@@ -134,7 +147,24 @@ class RouteModel implements Serializable {
      *         <code>url</code> argument according with the route configuration.
      */
     NavigationRouteTarget getNavigationRouteTarget(String url) {
-        return root.getNavigationRouteTarget(url);
+        if (mutable || url == null || isEmpty()) {
+            return root.getNavigationRouteTarget(url);
+        }
+
+        Map<String, NavigationRouteTarget> cache = getNavigationCache();
+        NavigationRouteTarget result;
+        synchronized (cache) {
+            result = cache.get(url);
+        }
+        if (result == null) {
+            // Results are immutable, so a concurrent duplicate search is
+            // harmless.
+            result = root.getNavigationRouteTarget(url);
+            synchronized (cache) {
+                cache.put(url, result);
+            }
+        }
+        return result;
     }
 
     /**
@@ -245,6 +275,20 @@ class RouteModel implements Serializable {
         return result;
     }
 
+    private synchronized Map<String, NavigationRouteTarget> getNavigationCache() {
+        if (navigationCache == null) {
+            navigationCache = new LinkedHashMap<String, NavigationRouteTarget>(
+                    16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(
+                        Map.Entry<String, NavigationRouteTarget> eldest) {
+                    return size() > NAVIGATION_CACHE_SIZE;
+                }
+            };
+        }
+        return navigationCache;
+    }
+
     private void throwIfImmutable() {
         if (!mutable) {
             throw new IllegalStateException(
@@ -257,7 +257,8 @@ final class RouteSegment implements Serializable {
         Map<String, String> parameters = new HashMap<>();
 
         RouteTarget routeTarget = url == null ? null
-                : findRouteTarget(PathUtil.getSegmentsList(url), parameters);
+                : findRouteTarget(PathUtil.getSegmentsList(url), 0,
+                        parameters);
 
         return new NavigationRouteTarget(url, routeTarget, parameters);
     }
@@ -408,31 +409,39 @@ final class RouteSegment implements Serializable {
     }
 
     /**
-     * Searches for the route target using specified segments.
+     * Searches for the route target using the specified segments, starting
+     * from the segment at the given index.
      * <p>
      * Input parameters argument will be filled with parameter values found in
-     * segments.
+     * segments. Values put by an attempt which doesn't find a target are
+     * removed again, so the same map is shared by the whole search.
      * 
      * @param segments
      *            input segments from navigation url.
+     * @param index
+     *            index of the first segment to match.
      * @param parameters
      *            a map instance used to output the parameters found in the
      *            input segment values.
      * @return the {@link RouteTarget} found.
      */
-    private RouteTarget findRouteTarget(List<String> segments,
+    private RouteTarget findRouteTarget(List<String> segments, int index,
             Map<String, String> parameters) {
 
-        // First try with a static segment (non a parameter). An empty
-        // segments list should happen only on root, so this instance should
+        final boolean hasSegments = index < segments.size();
+
+        // First try with a static segment (non a parameter). No remaining
+        // segments should happen only on root, so this instance should
         // resemble only the root.
-        RouteSegment routeSegment = segments.isEmpty() ? this
-                : getStaticSegments().get(segments.get(0));
+        RouteSegment routeSegment = hasSegments
+                ? getStaticSegments().get(segments.get(index))
+                : this;
 
         // Static segments
         if (routeSegment != null) {
             RouteTarget foundTarget = routeSegment
-                    .getRouteTargetMatchingParameter(segments, parameters);
+                    .getRouteTargetMatchingParameter(segments, index,
+                            parameters);
             if (foundTarget != null) {
                 return foundTarget;
             }
@@ -440,32 +449,33 @@ final class RouteSegment implements Serializable {
 
         // If no route following a static segment was found try through
         // parameters.
-        if (!segments.isEmpty()) {
+        if (hasSegments) {
 
             RouteTarget foundTarget;
 
             // Mandatory parameters
-            foundTarget = findRouteTarget(segments, parameters,
+            foundTarget = findRouteTarget(segments, index, parameters,
                     getParameterSegments());
             if (foundTarget != null) {
                 return foundTarget;
             }
 
             // Optionals
-            foundTarget = findRouteTarget(segments, parameters,
+            foundTarget = findRouteTarget(segments, index, parameters,
                     getOptionalSegments());
             if (foundTarget != null) {
                 return foundTarget;
             }
 
             // Optional's children
-            foundTarget = findRouteTargetInOptionals(segments, parameters);
+            foundTarget = findRouteTargetInOptionals(segments, index,
+                    parameters);
             if (foundTarget != null) {
                 return foundTarget;
             }
 
             // Varargs
-            foundTarget = findRouteTarget(segments, parameters,
+            foundTarget = findRouteTarget(segments, index, parameters,
                     getVarargsSegments());
             if (foundTarget != null) {
                 return foundTarget;
@@ -476,28 +486,27 @@ final class RouteSegment implements Serializable {
     }
 
     private RouteTarget findRouteTargetInOptionals(List<String> segments,
-            Map<String, String> parameters) {
+            int index, Map<String, String> parameters) {
         RouteTarget foundTarget;
         for (RouteSegment parameter : getOptionalSegments().values()) {
             // Try ignoring the parameter if optional and look into its
             // children using the same segments.
-            Map<String, String> outputParameters = new HashMap<>();
-            foundTarget = parameter.findRouteTarget(segments, outputParameters);
+            foundTarget = parameter.findRouteTarget(segments, index,
+                    parameters);
 
             if (foundTarget != null) {
-                parameters.putAll(outputParameters);
                 return foundTarget;
             }
         }
         return null;
     }
 
-    private RouteTarget findRouteTarget(List<String> segments,
+    private RouteTarget findRouteTarget(List<String> segments, int index,
             Map<String, String> parameters,
             Map<String, RouteSegment> children) {
         for (RouteSegment segment : children.values()) {
-            RouteTarget foundTarget = segment
-                    .getRouteTargetMatchingParameter(segments, parameters);
+            RouteTarget foundTarget = segment.getRouteTargetMatchingParameter(
+                    segments, index, parameters);
             if (foundTarget != null) {
                 return foundTarget;
             }
@@ -506,56 +515,65 @@ final class RouteSegment implements Serializable {
     }
 
     private RouteTarget getRouteTargetMatchingParameter(List<String> segments,
-            Map<String, String> parameters) {
+            int index, Map<String, String> parameters) {
 
-        Map<String, String> outputParameters = new HashMap<>();
+        String previousValue = null;
+        int nextIndex;
 
         // Handle varargs.
         if (isVarargs()) {
 
-            for (String value : segments) {
-                if (!isEligible(value)) {
+            for (int i = index; i < segments.size(); i++) {
+                if (!isEligible(segments.get(i))) {
                     // If any value is not eligible we don't want to go
                     // any further.
                     return null;
                 }
             }
 
-            outputParameters.put(getName(), PathUtil.getPath(segments));
-            segments = Collections.emptyList();
+            previousValue = parameters.put(getName(), PathUtil
+                    .getPath(segments.subList(index, segments.size())));
+            nextIndex = segments.size();
 
         } else if (isParameter()) {
             // Handle one parameter value.
-            String value = segments.get(0);
+            String value = segments.get(index);
 
             if (isEligible(value)) {
-                outputParameters.put(getName(), value);
+                previousValue = parameters.put(getName(), value);
 
             } else {
                 // If the value is not eligible we don't want to go any
                 // further.
                 return null;
             }
-        }
+            nextIndex = index + 1;
 
-        segments = segments.size() <= 1 ? Collections.emptyList()
-                : segments.subList(1, segments.size());
+        } else {
+            nextIndex = Math.min(index + 1, segments.size());
+        }
 
-        RouteTarget foundTarget = getRouteTarget(segments, outputParameters);
+        RouteTarget foundTarget = getRouteTarget(segments, nextIndex,
+                parameters);
 
-        if (foundTarget != null) {
-            parameters.putAll(outputParameters);
+        if (foundTarget == null && isParameter()) {
+            // Restore the parameters for the next attempt.
+            if (previousValue == null) {
+                parameters.remove(getName());
+            } else {
+                parameters.put(getName(), previousValue);
+            }
         }
 
         return foundTarget;
     }
 
-    private RouteTarget getRouteTarget(List<String> segments,
-            Map<String, String> outputParameters) {
+    private RouteTarget getRouteTarget(List<String> segments, int index,
+            Map<String, String> parameters) {
         RouteTarget foundTarget;
-        if (!segments.isEmpty()) {
+        if (index < segments.size()) {
             // Continue looking if there any more segments.
-            foundTarget = findRouteTarget(segments, outputParameters);
+            foundTarget = findRouteTarget(segments, index, parameters);
 
         } else if (hasTarget()) {
             // Found target.
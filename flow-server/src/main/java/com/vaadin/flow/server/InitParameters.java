@@ -71,6 +71,59 @@ public class InitParameters implements Serializable {
      */
     public static final String SERVLET_PARAMETER_BROTLI = "brotli";
 
+    /**
+     * Configuration name for the parameter that determines whether pending
+     * {@link com.vaadin.flow.server.VaadinSession#access access} tasks are
+     * run and pushed using a background executor instead of on the thread
+     * calling <code>access</code>.
+     */
+    public static final String SERVLET_PARAMETER_ASYNC_ACCESS = "asyncAccess";
+
+    /**
+     * Configuration name for the parameter that determines whether session
+     * locks should use a fair ordering policy, granting the lock to the
+     * longest-waiting thread.
+     */
+    public static final String SERVLET_PARAMETER_SESSION_LOCK_FAIR = "sessionLockFair";
+
+    /**
+     * Configuration name for the parameter that sets the time in milliseconds
+     * after which a thread waiting for a session lock logs a warning with
+     * information about the thread holding the lock. <code>0</code> disables
+     * the warning.
+     */
+    public static final String SERVLET_PARAMETER_SESSION_LOCK_WARNING_THRESHOLD = "sessionLockWarningThreshold";
+
+    /**
+     * Configuration name for the parameter that determines whether UIDL
+     * responses should be serialized directly to the response instead of
+     * first building the complete response as a JSON object.
+     */
+    public static final String SERVLET_PARAMETER_STREAMING_UIDL = "streamingUidl";
+
+    /**
+     * Configuration name for the parameter that sets the time in milliseconds
+     * during which updates sent through the
+     * {@link com.vaadin.flow.server.UIBroadcaster} are collected before they
+     * are delivered. <code>0</code> delivers each broadcast right away.
+     */
+    public static final String SERVLET_PARAMETER_BROADCAST_WINDOW = "broadcastWindow";
+
+    /**
+     * Configuration name for the parameter that determines whether static
+     * resources served by {@link com.vaadin.flow.server.StaticFileServer} are
+     * cached in memory in production mode, together with their entity tags
+     * and precompressed variants.
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE = "staticResourceCache";
+
+    /**
+     * Configuration name for the parameter that sets the maximum size in
+     * bytes of static resources whose contents are kept in memory by the
+     * static resource cache. Larger resources are streamed.
+     */
+    public static final String SERVLET_PARAMETER_STATIC_RESOURCE_CACHE_MAX_FILE_SIZE = "staticResourceCache.maxFileSize";
+
     /**
      * Configuration name for the WebPack profile statistics json file to use to
      * determine template contents.
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Session lock which reports wait and hold times to a
+ * {@link SessionLockMetrics} instance and optionally logs a warning, including
+ * the stack trace of the thread owning the lock, when a thread has to wait for
+ * the lock longer than a given threshold.
+ * <p>
+ * Only the outermost acquisition and release of a thread are measured,
+ * reentrant locking is not. The metrics instance is not serialized together
+ * with the lock, so a deserialized lock no longer reports any values.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#createSessionLock(WrappedSession)
+ */
+public class InstrumentedSessionLock extends ReentrantLock {
+
+    private final transient SessionLockMetrics metrics;
+
+    private final long warningThresholdNanos;
+
+    private transient long acquiredAt;
+
+    /**
+     * Creates a new session lock.
+     *
+     * @param fair
+     *            <code>true</code> if the lock should use a fair ordering
+     *            policy
+     * @param metrics
+     *            the metrics to report to, or <code>null</code> to not collect
+     *            metrics
+     * @param warningThresholdMillis
+     *            the wait time in milliseconds after which a warning is
+     *            logged, or <code>0</code> to never log a warning
+     */
+    public InstrumentedSessionLock(boolean fair, SessionLockMetrics metrics,
+            long warningThresholdMillis) {
+        super(fair);
+        this.metrics = metrics;
+        warningThresholdNanos = TimeUnit.MILLISECONDS
+                .toNanos(warningThresholdMillis);
+    }
+
+    @Override
+    public void lock() {
+        if (isHeldByCurrentThread()) {
+            super.lock();
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean contended = isLocked();
+        int queueLength = getQueueLength();
+
+        if (contended && warningThresholdNanos > 0) {
+            lockWithWarning();
+        } else {
+            super.lock();
+        }
+
+        lockAcquired(start, contended, queueLength);
+    }
+
+    private void lockWithWarning() {
+        boolean interrupted = false;
+        try {
+            if (super.tryLock(warningThresholdNanos, TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+
+        if (!interrupted) {
+            logSlowAcquire();
+        }
+        super.lock();
+
+        if (interrupted) {
+            // lock() is not interruptible, so just restore the flag
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        if (isHeldByCurrentThread()) {
+            super.lockInterruptibly();
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean contended = isLocked();
+        int queueLength = getQueueLength();
+
+        super.lockInterruptibly();
+
+        lockAcquired(start, contended, queueLength);
+    }
+
+    @Override
+    public boolean tryLock() {
+        boolean reentrant = isHeldByCurrentThread();
+        long start = System.nanoTime();
+        boolean acquired = super.tryLock();
+        if (acquired && !reentrant) {
+            lockAcquired(start, false, 0);
+        }
+        return acquired;
+    }
+
+    @Override
+    public boolean tryLock(long timeout, TimeUnit unit)
+            throws InterruptedException {
+        boolean reentrant = isHeldByCurrentThread();
+        long start = System.nanoTime();
+        boolean contended = isLocked();
+        int queueLength = getQueueLength();
+        boolean acquired = super.tryLock(timeout, unit);
+        if (acquired && !reentrant) {
+            lockAcquired(start, contended, queueLength);
+        }
+        return acquired;
+    }
+
+    @Override
+    public void unlock() {
+        if (metrics != null && getHoldCount() == 1) {
+            metrics.recordRelease(System.nanoTime() - acquiredAt);
+        }
+        super.unlock();
+    }
+
+    /**
+     * Gets the thread currently owning this lock, if any.
+     *
+     * @return the owner thread, or <code>null</code> if the lock is not held
+     */
+    public Thread getOwnerThread() {
+        return getOwner();
+    }
+
+    private void lockAcquired(long start, boolean contended,
+            int queueLength) {
+        acquiredAt = System.nanoTime();
+        if (metrics != null) {
+            metrics.recordAcquire(acquiredAt - start, contended, queueLength);
+        }
+    }
+
+    private void logSlowAcquire() {
+        if (metrics != null) {
+            metrics.recordSlowAcquire();
+        }
+
+        Logger logger = getLogger();
+        if (!logger.isWarnEnabled()) {
+            return;
+        }
+        Thread owner = getOwner();
+        if (owner == null) {
+            logger.warn(
+                    "Thread {} has waited more than {} ms for a session lock",
+                    Thread.currentThread().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(warningThresholdNanos));
+        } else {
+            logger.warn(
+                    "Thread {} has waited more than {} ms for a session lock held by thread {}, "
+                            + "{} threads waiting. Owner stack trace: {}",
+                    Thread.currentThread().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(warningThresholdNanos),
+                    owner.getName(), getQueueLength(),
+                    Arrays.toString(owner.getStackTrace()));
+        }
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(InstrumentedSessionLock.class);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Aggregated statistics about the session locks of a {@link VaadinService}:
+ * how often the locks are acquired, how long threads wait for them and how
+ * long they are held.
+ * <p>
+ * Wait times are additionally counted in a histogram with the bucket upper
+ * bounds given by {@link #getHistogramBounds()}.
+ * <p>
+ * All methods are thread safe. The values are collected by
+ * {@link InstrumentedSessionLock}.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getSessionLockMetrics()
+ */
+public class SessionLockMetrics implements Serializable {
+
+    private static final long[] HISTOGRAM_BOUNDS_MILLIS = { 1, 5, 10, 50,
+            100, 500, 1000, 5000 };
+
+    private final LongAdder acquireCount = new LongAdder();
+    private final LongAdder contendedCount = new LongAdder();
+    private final LongAdder slowAcquireCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder totalHoldNanos = new LongAdder();
+    private final AtomicLong maxHoldNanos = new AtomicLong();
+    private final AtomicLong maxQueueLength = new AtomicLong();
+    private final AtomicLongArray waitHistogram = new AtomicLongArray(
+            HISTOGRAM_BOUNDS_MILLIS.length + 1);
+
+    /**
+     * Records an acquisition of a session lock.
+     *
+     * @param waitNanos
+     *            the time waited for the lock, in nanoseconds
+     * @param contended
+     *            <code>true</code> if the lock was held by another thread
+     *            when the acquisition was started
+     * @param queueLength
+     *            the estimated number of threads waiting for the lock when the
+     *            acquisition was started
+     */
+    public void recordAcquire(long waitNanos, boolean contended,
+            int queueLength) {
+        acquireCount.increment();
+        if (contended) {
+            contendedCount.increment();
+        }
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        maxQueueLength.accumulateAndGet(queueLength, Math::max);
+
+        long waitMillis = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        int bucket = 0;
+        while (bucket < HISTOGRAM_BOUNDS_MILLIS.length
+                && waitMillis >= HISTOGRAM_BOUNDS_MILLIS[bucket]) {
+            bucket++;
+        }
+        waitHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Records that a thread has waited for a session lock longer than the
+     * configured warning threshold.
+     */
+    public void recordSlowAcquire() {
+        slowAcquireCount.increment();
+    }
+
+    /**
+     * Records the release of a session lock.
+     *
+     * @param holdNanos
+     *            the time the lock was held, in nanoseconds
+     */
+    public void recordRelease(long holdNanos) {
+        totalHoldNanos.add(holdNanos);
+        maxHoldNanos.accumulateAndGet(holdNanos, Math::max);
+    }
+
+    /**
+     * Gets the number of times a session lock has been acquired. Reentrant
+     * acquisitions by a thread already holding the lock are not counted.
+     *
+     * @return the number of lock acquisitions
+     */
+    public long getAcquireCount() {
+        return acquireCount.sum();
+    }
+
+    /**
+     * Gets the number of acquisitions that had to wait for another thread to
+     * release the lock.
+     *
+     * @return the number of contended acquisitions
+     */
+    public long getContendedCount() {
+        return contendedCount.sum();
+    }
+
+    /**
+     * Gets the number of acquisitions that waited longer than the configured
+     * warning threshold.
+     *
+     * @return the number of slow acquisitions
+     * @see com.vaadin.flow.function.DeploymentConfiguration#getSessionLockWarningThreshold()
+     */
+    public long getSlowAcquireCount() {
+        return slowAcquireCount.sum();
+    }
+
+    /**
+     * Gets the total time threads have waited for session locks.
+     *
+     * @param unit
+     *            the unit to return the time in, not <code>null</code>
+     * @return the total wait time
+     */
+    public long getTotalWaitTime(TimeUnit unit) {
+        return unit.convert(totalWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the longest time a thread has waited for a session lock.
+     *
+     * @param unit
+     *            the unit to return the time in, not <code>null</code>
+     * @return the maximum wait time
+     */
+    public long getMaxWaitTime(TimeUnit unit) {
+        return unit.convert(maxWaitNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the total time session locks have been held.
+     *
+     * @param unit
+     *            the unit to return the time in, not <code>null</code>
+     * @return the total hold time
+     */
+    public long getTotalHoldTime(TimeUnit unit) {
+        return unit.convert(totalHoldNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the longest time a session lock has been held.
+     *
+     * @param unit
+     *            the unit to return the time in, not <code>null</code>
+     * @return the maximum hold time
+     */
+    public long getMaxHoldTime(TimeUnit unit) {
+        return unit.convert(maxHoldNanos.get(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the largest number of threads that have been waiting for a single
+     * session lock at the same time.
+     *
+     * @return the maximum queue length
+     */
+    public long getMaxQueueLength() {
+        return maxQueueLength.get();
+    }
+
+    /**
+     * Gets the wait time histogram. The value at index <code>i</code> is the
+     * number of acquisitions that waited less than
+     * <code>getHistogramBounds()[i]</code> milliseconds, but not less than the
+     * previous bound. The last value counts all acquisitions exceeding the
+     * largest bound.
+     *
+     * @return a copy of the wait time histogram counts
+     */
+    public long[] getWaitTimeHistogram() {
+        long[] counts = new long[waitHistogram.length()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = waitHistogram.get(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the upper bounds, in milliseconds, of the wait time histogram
+     * buckets.
+     *
+     * @return a copy of the histogram bucket bounds
+     * @see #getWaitTimeHistogram()
+     */
+    public static long[] getHistogramBounds() {
+        return Arrays.copyOf(HISTOGRAM_BOUNDS_MILLIS,
+                HISTOGRAM_BOUNDS_MILLIS.length);
+    }
+}
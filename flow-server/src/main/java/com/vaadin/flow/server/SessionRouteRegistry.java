@@ -15,7 +15,9 @@
  */
 package com.vaadin.flow.server;
 
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -48,6 +50,25 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
 
     private final VaadinSession session;
 
+    /**
+     * Session routes merged with the routes of the parent registry, reused
+     * while neither of them changes.
+     */
+    private transient volatile MergedRoutes mergedRoutes;
+
+    private static final class MergedRoutes implements Serializable {
+        private final List<RouteData> sessionRoutes;
+        private final List<RouteData> parentRoutes;
+        private final List<RouteData> routes;
+
+        private MergedRoutes(List<RouteData> sessionRoutes,
+                List<RouteData> parentRoutes, List<RouteData> routes) {
+            this.sessionRoutes = sessionRoutes;
+            this.parentRoutes = parentRoutes;
+            this.routes = routes;
+        }
+    }
+
     /**
      * Package protected constructor for the session route registry.
      * <p>
@@ -87,10 +108,20 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
 
     @Override
     public List<RouteData> getRegisteredRoutes() {
-        List<RouteData> routes = new ArrayList<>(super.getRegisteredRoutes());
-
+        List<RouteData> sessionRoutes = super.getRegisteredRoutes();
         List<RouteData> registeredRoutes = getParentRegistry()
                 .getRegisteredRoutes();
+        if (sessionRoutes.isEmpty()) {
+            return registeredRoutes;
+        }
+
+        MergedRoutes merged = mergedRoutes;
+        if (merged != null && merged.sessionRoutes == sessionRoutes
+                && merged.parentRoutes == registeredRoutes) {
+            return merged.routes;
+        }
+
+        List<RouteData> routes = new ArrayList<>(sessionRoutes);
         if (!registeredRoutes.isEmpty()) {
             Set<String> collect = routes.stream().map(RouteData::getTemplate)
                     .collect(Collectors.toSet());
@@ -99,6 +130,9 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
                     .forEach(routes::add);
         }
 
+        routes = Collections.unmodifiableList(routes);
+        mergedRoutes = new MergedRoutes(sessionRoutes, registeredRoutes,
+                routes);
         return routes;
     }
 
@@ -147,10 +181,13 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
 
     @Override
     public NavigationRouteTarget getNavigationRouteTarget(String url) {
-        final NavigationRouteTarget navigationRouteTarget = getConfiguration()
-                .getNavigationRouteTarget(url);
-        if (navigationRouteTarget.hasTarget()) {
-            return navigationRouteTarget;
+        final ConfiguredRoutes configuration = getConfiguration();
+        if (hasRoutes(configuration)) {
+            final NavigationRouteTarget navigationRouteTarget = configuration
+                    .getNavigationRouteTarget(url);
+            if (navigationRouteTarget.hasTarget()) {
+                return navigationRouteTarget;
+            }
         }
         return getParentRegistry().getNavigationRouteTarget(url);
     }
@@ -170,10 +207,13 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
     public Optional<Class<? extends Component>> getNavigationTarget(
             String url) {
         Objects.requireNonNull(url, "pathString must not be null.");
-        final Optional<Class<? extends Component>> target = getConfiguration()
-                .getTarget(url);
-        if (target.isPresent()) {
-            return target;
+        final ConfiguredRoutes configuration = getConfiguration();
+        if (hasRoutes(configuration)) {
+            final Optional<Class<? extends Component>> target = configuration
+                    .getTarget(url);
+            if (target.isPresent()) {
+                return target;
+            }
         }
 
         return getParentRegistry().getNavigationTarget(url);
@@ -183,10 +223,13 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
     public Optional<Class<? extends Component>> getNavigationTarget(
             String url, List<String> segments) {
         Objects.requireNonNull(url, "url must not be null.");
-        final Optional<Class<? extends Component>> target = getConfiguration()
-                .getTarget(PathUtil.getPath(url, segments));
-        if (target.isPresent()) {
-            return target;
+        final ConfiguredRoutes configuration = getConfiguration();
+        if (hasRoutes(configuration)) {
+            final Optional<Class<? extends Component>> target = configuration
+                    .getTarget(PathUtil.getPath(url, segments));
+            if (target.isPresent()) {
+                return target;
+            }
         }
 
         return getParentRegistry().getNavigationTarget(url, segments);
@@ -245,6 +288,15 @@ public class SessionRouteRegistry extends AbstractRouteRegistry {
         return getParentRegistry().getRouteLayouts(path, navigationTarget);
     }
 
+    /**
+     * Checks whether the given configuration of this registry has any routes.
+     * Sessions without routes of their own skip searching their
+     * configuration.
+     */
+    private static boolean hasRoutes(ConfiguredRoutes configuration) {
+        return !configuration.getRoutes().isEmpty();
+    }
+
     private RouteRegistry getParentRegistry() {
         return session.getService().getRouteRegistry();
     }
@@ -32,6 +32,7 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.function.DeploymentConfiguration;
 import com.vaadin.flow.internal.ResponseWriter;
+import com.vaadin.flow.internal.StaticResourceCache;
 
 import static com.vaadin.flow.server.Constants.VAADIN_BUILD_FILES_PATH;
 import static com.vaadin.flow.server.Constants.VAADIN_MAPPING;
@@ -61,6 +62,7 @@ public class StaticFileServer implements StaticFileHandler {
     private final ResponseWriter responseWriter;
     private final VaadinServletService servletService;
     private DeploymentConfiguration deploymentConfiguration;
+    private final StaticResourceCache resourceCache;
 
     /**
      * Constructs a file server.
@@ -72,6 +74,13 @@ public class StaticFileServer implements StaticFileHandler {
         this.servletService = servletService;
         deploymentConfiguration = servletService.getDeploymentConfiguration();
         responseWriter = new ResponseWriter(deploymentConfiguration);
+        if (deploymentConfiguration.isProductionMode()
+                && deploymentConfiguration.isStaticResourceCacheEnabled()) {
+            resourceCache = new StaticResourceCache(deploymentConfiguration
+                    .getStaticResourceCacheMaxFileSize());
+        } else {
+            resourceCache = null;
+        }
     }
 
     @Override
@@ -115,21 +124,11 @@ public class StaticFileServer implements StaticFileHandler {
             return true;
         }
 
-        URL resourceUrl = null;
-        if (isAllowedVAADINBuildUrl(filenameWithPath)) {
-            resourceUrl = servletService.getClassLoader()
-                    .getResource("META-INF" + filenameWithPath);
-        }
-        if (resourceUrl == null) {
-            resourceUrl = servletService.getStaticResource(filenameWithPath);
-        }
-        if (resourceUrl == null && shouldFixIncorrectWebjarPaths()
-                && isIncorrectWebjarPath(filenameWithPath)) {
-            // Flow issue #4601
-            resourceUrl = servletService.getStaticResource(
-                    fixIncorrectWebjarPath(filenameWithPath));
+        if (resourceCache != null) {
+            return serveCachedResource(filenameWithPath, request, response);
         }
 
+        URL resourceUrl = findResourceUrl(filenameWithPath);
         if (resourceUrl == null) {
             // Not found in webcontent or in META-INF/resources in some JAR
             response.sendError(HttpServletResponse.SC_NOT_FOUND);
@@ -140,6 +139,7 @@ public class StaticFileServer implements StaticFileHandler {
 
         // Intentionally writing cache headers also for 304 responses
         writeCacheHeaders(filenameWithPath, response);
+        response.setHeader("Accept-Ranges", "bytes");
 
         long timestamp = writeModificationTimestamp(resourceUrl, request,
                 response);
@@ -149,11 +149,140 @@ public class StaticFileServer implements StaticFileHandler {
             response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
             return true;
         }
+        if (isRangeRequestApplicable(request, null, timestamp)
+                && responseWriter.writeRangeResponseContents(
+                        filenameWithPath, resourceUrl, request, response)) {
+            return true;
+        }
         responseWriter.writeResponseContents(filenameWithPath, resourceUrl,
                 request, response);
         return true;
     }
 
+    private boolean serveCachedResource(String filenameWithPath,
+            HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        StaticResourceCache.Resource resource = resourceCache
+                .get(filenameWithPath, this::findResourceUrl);
+        if (resource == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return true;
+        }
+
+        // Intentionally writing cache headers also for 304 responses
+        writeCacheHeaders(filenameWithPath, response);
+        response.setHeader("Accept-Ranges", "bytes");
+
+        // Ranges are always served from the uncompressed resource
+        boolean rangeRequest = request.getHeader("Range") != null;
+        String encoding = rangeRequest ? null
+                : responseWriter.getContentEncoding(resource, request);
+        String eTag = resource.getETag(encoding);
+        response.setHeader("ETag", eTag);
+        if (resource.getLastModified() >= 0) {
+            response.setDateHeader("Last-Modified",
+                    resource.getLastModified());
+        }
+        if (resource.hasCompressedVariants()) {
+            response.setHeader("Vary", "Accept-Encoding");
+        }
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        boolean notModified = ifNoneMatch != null
+                ? matchesETag(ifNoneMatch, eTag)
+                : browserHasNewestVersion(request,
+                        resource.getLastModified());
+        if (notModified) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return true;
+        }
+        if (rangeRequest
+                && isRangeRequestApplicable(request, eTag,
+                        resource.getLastModified())
+                && responseWriter.writeRangeResponseContents(
+                        filenameWithPath, resource, request, response)) {
+            return true;
+        }
+        responseWriter.writeResponseContents(filenameWithPath, resource,
+                encoding, request, response);
+        return true;
+    }
+
+    /**
+     * Checks whether the <code>Range</code> header of the request can be
+     * honoured, based on the <code>If-Range</code> header. A partial response
+     * may only be sent if the representation the browser has is the current
+     * one.
+     *
+     * @param request
+     *            the request object
+     * @param eTag
+     *            the strong entity tag of the resource, or <code>null</code>
+     *            if not known
+     * @param resourceLastModifiedTimestamp
+     *            the timestamp when the resource was last modified, -1 if not
+     *            known
+     * @return <code>true</code> if a partial response may be sent,
+     *         <code>false</code> if the full resource must be sent
+     */
+    protected boolean isRangeRequestApplicable(HttpServletRequest request,
+            String eTag, long resourceLastModifiedTimestamp) {
+        if (request.getHeader("Range") == null) {
+            return false;
+        }
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange == null) {
+            return true;
+        }
+        ifRange = ifRange.trim();
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // Weak entity tags never match in If-Range
+            return ifRange.equals(eTag);
+        }
+        if (resourceLastModifiedTimestamp == -1L) {
+            return false;
+        }
+        try {
+            return request.getDateHeader(
+                    "If-Range") == resourceLastModifiedTimestamp;
+        } catch (IllegalArgumentException e) {
+            getLogger().trace("Unable to parse If-Range", e);
+            return false;
+        }
+    }
+
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                // Weak comparison is used for If-None-Match
+                candidate = candidate.substring(2);
+            }
+            if ("*".equals(candidate) || eTag.equals(candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private URL findResourceUrl(String filenameWithPath) {
+        URL resourceUrl = null;
+        if (isAllowedVAADINBuildUrl(filenameWithPath)) {
+            resourceUrl = servletService.getClassLoader()
+                    .getResource("META-INF" + filenameWithPath);
+        }
+        if (resourceUrl == null) {
+            resourceUrl = servletService.getStaticResource(filenameWithPath);
+        }
+        if (resourceUrl == null && shouldFixIncorrectWebjarPaths()
+                && isIncorrectWebjarPath(filenameWithPath)) {
+            // Flow issue #4601
+            resourceUrl = servletService.getStaticResource(
+                    fixIncorrectWebjarPath(filenameWithPath));
+        }
+        return resourceUrl;
+    }
+
     // When referring to webjar resources from application stylesheets (loaded
     // using @StyleSheet) using relative paths, the paths will be different in
     // development mode and in production mode. The reason is that in production
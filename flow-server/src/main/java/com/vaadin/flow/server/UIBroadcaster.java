@@ -0,0 +1,271 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.UIDetachedException;
+import com.vaadin.flow.function.SerializableConsumer;
+
+/**
+ * Delivers the same update to many UIs.
+ * <p>
+ * Instead of running one {@link UI#access(Command)} task per target UI, the
+ * broadcaster groups the target UIs by session and runs a single
+ * {@link VaadinSession#access(Command) access task} per session, which
+ * applies the updates of all UIs of that session and results in at most one
+ * push per UI.
+ * <p>
+ * Updates are delivered after a configurable coalescing window. Updates
+ * broadcast with the same key to the same UI within the window replace each
+ * other, so that only the latest one is applied. With a window of zero,
+ * updates are delivered right away.
+ * <p>
+ * Updates are run while holding the session lock with the target UI set as
+ * the current UI, in the same way as with {@link UI#access(Command)}.
+ * <p>
+ * Updates delivered after a window are handed off per session, so that a
+ * session whose lock is contended or whose push is slow doesn't delay the
+ * other sessions. The session access tasks then run on the service's
+ * {@link VaadinService#getAccessExecutor() access executor} if there is one,
+ * and otherwise on a small thread pool of the broadcaster. Broadcasts without
+ * a window and explicit {@link #flush()} calls deliver the updates in the
+ * calling thread, one session after another, unless there is an access
+ * executor.
+ *
+ * @author Vaadin Ltd
+ * @since
+ * @see VaadinService#getBroadcaster()
+ */
+public class UIBroadcaster implements Serializable {
+
+    private final long windowMillis;
+
+    // Pending updates per UI, keyed by the coalescing key. Guarded by this.
+    private final Map<UI, Map<Object, SerializableConsumer<UI>>> pendingUpdates = new LinkedHashMap<>();
+
+    private boolean flushScheduled;
+
+    private transient ScheduledExecutorService scheduler;
+
+    private transient ExecutorService deliveryExecutor;
+
+    private boolean closed;
+
+    /**
+     * Creates a new broadcaster.
+     *
+     * @param windowMillis
+     *            the time in milliseconds to wait for further updates before
+     *            delivering a broadcast, or <code>0</code> to deliver each
+     *            broadcast right away
+     */
+    public UIBroadcaster(long windowMillis) {
+        if (windowMillis < 0) {
+            throw new IllegalArgumentException(
+                    "The coalescing window cannot be negative");
+        }
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Broadcasts an update to the given UIs. Every broadcast update is
+     * applied, even if another update for the same UIs is broadcast within
+     * the coalescing window.
+     *
+     * @param uis
+     *            the UIs to update, not <code>null</code>
+     * @param update
+     *            the update to run for each UI, not <code>null</code>
+     */
+    public void broadcast(Collection<UI> uis, SerializableConsumer<UI> update) {
+        broadcast(uis, new Object(), update);
+    }
+
+    /**
+     * Broadcasts an update to the given UIs, replacing any update for the same
+     * key that has not yet been delivered to a UI.
+     *
+     * @param uis
+     *            the UIs to update, not <code>null</code>
+     * @param key
+     *            the key identifying updates that replace each other, not
+     *            <code>null</code>
+     * @param update
+     *            the update to run for each UI, not <code>null</code>
+     */
+    public void broadcast(Collection<UI> uis, Object key,
+            SerializableConsumer<UI> update) {
+        Objects.requireNonNull(uis, "UIs cannot be null");
+        Objects.requireNonNull(key, "Key cannot be null");
+        Objects.requireNonNull(update, "Update cannot be null");
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException(
+                        "The broadcaster has been closed");
+            }
+            for (UI ui : uis) {
+                pendingUpdates
+                        .computeIfAbsent(ui, item -> new LinkedHashMap<>())
+                        .put(key, update);
+            }
+            if (windowMillis > 0) {
+                if (!flushScheduled) {
+                    flushScheduled = true;
+                    getScheduler().schedule(() -> deliver(true),
+                            windowMillis, TimeUnit.MILLISECONDS);
+                }
+                return;
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Delivers all pending updates right away.
+     */
+    public void flush() {
+        deliver(false);
+    }
+
+    private void deliver(boolean handOff) {
+        Map<UI, Map<Object, SerializableConsumer<UI>>> updates;
+        synchronized (this) {
+            flushScheduled = false;
+            if (pendingUpdates.isEmpty()) {
+                return;
+            }
+            updates = new LinkedHashMap<>(pendingUpdates);
+            pendingUpdates.clear();
+        }
+
+        // Sessions are compared by identity, the map keeps the broadcast order
+        Map<VaadinSession, List<UI>> uisBySession = new LinkedHashMap<>();
+        for (UI ui : updates.keySet()) {
+            VaadinSession session = ui.getSession();
+            if (session != null) {
+                uisBySession.computeIfAbsent(session, item -> new ArrayList<>())
+                        .add(ui);
+            }
+        }
+
+        uisBySession.forEach((session, uis) -> {
+            Command task = () -> uis
+                    .forEach(ui -> apply(ui, updates.get(ui).values()));
+            VaadinService service = session.getService();
+            if (!handOff || (service != null
+                    && service.getAccessExecutor() != null)) {
+                // An access executor already runs the task in another thread
+                session.access(task);
+                return;
+            }
+            Executor executor = getDeliveryExecutor();
+            if (executor == null) {
+                return;
+            }
+            try {
+                executor.execute(() -> session.access(task));
+            } catch (RejectedExecutionException e) {
+                getLogger().debug(
+                        "Skipping broadcast delivery after closing", e);
+            }
+        });
+    }
+
+    private static void apply(UI ui,
+            Collection<SerializableConsumer<UI>> updates) {
+        try {
+            ui.accessSynchronously(
+                    () -> updates.forEach(update -> update.accept(ui)));
+        } catch (UIDetachedException e) {
+            getLogger().debug("Skipping broadcast to a detached UI", e);
+        } catch (RuntimeException e) {
+            // Don't prevent delivery to the other UIs of the session
+            getLogger().error("Broadcast update failed", e);
+        }
+    }
+
+    /**
+     * Closes this broadcaster. Pending updates are discarded and further
+     * broadcasts are rejected.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            pendingUpdates.clear();
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+            if (deliveryExecutor != null) {
+                deliveryExecutor.shutdown();
+                deliveryExecutor = null;
+            }
+        }
+    }
+
+    private ScheduledExecutorService getScheduler() {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "vaadin-broadcaster");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler;
+    }
+
+    private synchronized Executor getDeliveryExecutor() {
+        if (closed) {
+            return null;
+        }
+        if (deliveryExecutor == null) {
+            AtomicInteger threadNumber = new AtomicInteger();
+            deliveryExecutor = Executors.newFixedThreadPool(
+                    Math.max(2, Runtime.getRuntime().availableProcessors()),
+                    runnable -> {
+                        Thread thread = new Thread(runnable,
+                                "vaadin-broadcaster-delivery-"
+                                        + threadNumber.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        return deliveryExecutor;
+    }
+
+    private static Logger getLogger() {
+        return LoggerFactory.getLogger(UIBroadcaster.class);
+    }
+}
@@ -41,8 +41,13 @@ import java.util.ServiceLoader;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
@@ -189,6 +194,16 @@ public abstract class VaadinService implements Serializable {
 
     private VaadinContext vaadinContext;
 
+    private final SessionLockMetrics sessionLockMetrics = new SessionLockMetrics();
+
+    private transient volatile Executor accessExecutor;
+    private transient volatile boolean accessExecutorInitialized;
+
+    private final Set<VaadinSession> sessionsPendingPurge = ConcurrentHashMap
+            .newKeySet();
+
+    private transient volatile UIBroadcaster broadcaster;
+
     /**
      * Creates a new vaadin service based on a deployment configuration.
      *
@@ -764,6 +779,42 @@ public abstract class VaadinService implements Serializable {
                         + getLockAttributeName() + " in the session");
     }
 
+    /**
+     * Creates the lock instance used for locking the VaadinSession associated
+     * with the given wrapped session. This method is called once for each
+     * session, when the session is locked for the first time.
+     * <p>
+     * The default implementation creates an {@link InstrumentedSessionLock}
+     * which reports to {@link #getSessionLockMetrics()} and whose fairness and
+     * slow acquisition warning threshold are read from the deployment
+     * configuration. Override to use a different locking strategy.
+     *
+     * @param wrappedSession
+     *            the wrapped session to create a lock for
+     * @return a new lock instance, not <code>null</code>
+     * @see DeploymentConfiguration#isSessionLockFair()
+     * @see DeploymentConfiguration#getSessionLockWarningThreshold()
+     */
+    protected ReentrantLock createSessionLock(WrappedSession wrappedSession) {
+        DeploymentConfiguration configuration = getDeploymentConfiguration();
+        return new InstrumentedSessionLock(configuration.isSessionLockFair(),
+                sessionLockMetrics,
+                configuration.getSessionLockWarningThreshold());
+    }
+
+    /**
+     * Gets the statistics collected by the session locks of this service.
+     * <p>
+     * Only locks created by the default implementation of
+     * {@link #createSessionLock(WrappedSession)} report to the returned
+     * instance.
+     *
+     * @return the session lock metrics of this service, not <code>null</code>
+     */
+    public SessionLockMetrics getSessionLockMetrics() {
+        return sessionLockMetrics;
+    }
+
     /**
      * Locks the given session for this service instance. Typically you want to
      * call {@link VaadinSession#lock()} instead of this method.
@@ -786,7 +837,7 @@ public abstract class VaadinService implements Serializable {
             synchronized (VaadinService.class) {
                 lock = getSessionLock(wrappedSession);
                 if (lock == null) {
-                    lock = new ReentrantLock();
+                    lock = createSessionLock(wrappedSession);
                     setSessionLock(wrappedSession, lock);
                 }
             }
@@ -1962,11 +2013,40 @@ public abstract class VaadinService implements Serializable {
      * thread, the queue will be purged when the session is unlocked. If the
      * lock is not held by any thread, it is acquired and the queue is purged
      * right away.
+     * <p>
+     * If there is an {@link #getAccessExecutor() access executor} and the
+     * current thread doesn't hold the lock, the queue is instead purged by the
+     * executor and this method returns without waiting for it.
      *
      * @param session
      *            the session for which the access queue should be purged
      */
     public void ensureAccessQueuePurged(VaadinSession session) {
+        Executor executor = getAccessExecutor();
+        if (executor != null && !session.hasLock()) {
+            // Only one scheduled purge per session is needed since each purge
+            // runs all tasks queued up to that point
+            if (!sessionsPendingPurge.add(session)) {
+                return;
+            }
+            try {
+                executor.execute(() -> {
+                    sessionsPendingPurge.remove(session);
+                    purgeAccessQueue(session);
+                });
+                return;
+            } catch (RejectedExecutionException e) {
+                // E.g. the executor has been shut down by destroy()
+                sessionsPendingPurge.remove(session);
+                getLogger().debug(
+                        "Access executor rejected purging the access queue, purging in the current thread",
+                        e);
+            }
+        }
+        purgeAccessQueue(session);
+    }
+
+    private void purgeAccessQueue(VaadinSession session) {
         /*
          * If no thread is currently holding the lock, pending changes for UIs
          * with automatic push would not be processed and pushed until the next
@@ -1991,6 +2071,83 @@ public abstract class VaadinService implements Serializable {
         }
     }
 
+    /**
+     * Gets the executor used for running pending access tasks, and the pushes
+     * they trigger, outside of the thread that enqueued them.
+     * <p>
+     * The executor is created lazily using {@link #createAccessExecutor()}.
+     *
+     * @return the access executor, or <code>null</code> if access tasks are
+     *         run by the enqueuing thread
+     * @see DeploymentConfiguration#isAsyncAccess()
+     */
+    public Executor getAccessExecutor() {
+        if (!accessExecutorInitialized) {
+            synchronized (this) {
+                if (!accessExecutorInitialized) {
+                    accessExecutor = createAccessExecutor();
+                    accessExecutorInitialized = true;
+                }
+            }
+        }
+        return accessExecutor;
+    }
+
+    /**
+     * Gets the broadcaster for delivering the same update to many UIs of this
+     * service.
+     * <p>
+     * The broadcaster is created lazily using the coalescing window from the
+     * deployment configuration.
+     *
+     * @return the broadcaster, not <code>null</code>
+     * @see DeploymentConfiguration#getBroadcastWindow()
+     */
+    public UIBroadcaster getBroadcaster() {
+        if (broadcaster == null) {
+            synchronized (this) {
+                if (broadcaster == null) {
+                    DeploymentConfiguration configuration = getDeploymentConfiguration();
+                    broadcaster = new UIBroadcaster(configuration == null ? 0
+                            : configuration.getBroadcastWindow());
+                }
+            }
+        }
+        return broadcaster;
+    }
+
+    /**
+     * Creates the executor returned by {@link #getAccessExecutor()}.
+     * <p>
+     * If asynchronous access is enabled in the deployment configuration, the
+     * default implementation uses virtual threads when running on a JVM that
+     * supports them and a cached pool of daemon threads otherwise.
+     *
+     * @return a new executor, or <code>null</code> to run access tasks on the
+     *         enqueuing thread
+     */
+    protected Executor createAccessExecutor() {
+        DeploymentConfiguration configuration = getDeploymentConfiguration();
+        if (configuration == null || !configuration.isAsyncAccess()) {
+            return null;
+        }
+        try {
+            // Java 21+
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            getLogger().debug(
+                    "Virtual threads are not available, using a thread pool for access tasks");
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable,
+                    "vaadin-access-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
     /**
      * Purges the queue of pending access invocations enqueued with
      * {@link VaadinSession#access(Command)}.
@@ -2065,6 +2222,13 @@ public abstract class VaadinService implements Serializable {
         ServiceDestroyEvent event = new ServiceDestroyEvent(this);
         serviceDestroyListeners
                 .forEach(listener -> listener.serviceDestroy(event));
+
+        if (accessExecutor instanceof ExecutorService) {
+            ((ExecutorService) accessExecutor).shutdown();
+        }
+        if (broadcaster != null) {
+            broadcaster.close();
+        }
     }
 
     /**
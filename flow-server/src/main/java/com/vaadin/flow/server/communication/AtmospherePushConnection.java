@@ -21,6 +21,9 @@ import java.io.ObjectInputStream;
 import java.io.Reader;
 import java.io.Serializable;
 import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -33,6 +36,7 @@ import org.slf4j.LoggerFactory;
 
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.internal.UsageStatistics;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.communication.PushConstants;
 
 import elemental.json.JsonObject;
@@ -46,11 +50,18 @@ import elemental.json.JsonObject;
  */
 public class AtmospherePushConnection implements PushConnection {
 
+    /**
+     * How long a deferred push waits for the previous message to be written
+     * before the changes are sent anyway.
+     */
+    private static final long DEFERRED_PUSH_TIMEOUT_MS = 10000;
+
     private UI ui;
     private transient State state = State.DISCONNECTED;
     private transient AtmosphereResource resource;
     private transient FragmentedMessage incomingMessage;
     private transient Future<Object> outgoingMessage;
+    private transient boolean pushDeferred;
 
     /**
      * Represents a message that can arrive as multiple fragments.
@@ -189,17 +200,117 @@ public class AtmospherePushConnection implements PushConnection {
             } else {
                 state = State.RESPONSE_PENDING;
             }
-        } else {
-            try {
-                JsonObject response = new UidlWriter().createUidl(getUI(),
+        } else if (!async || !deferPush()) {
+            sendPush(async);
+        }
+    }
+
+    /**
+     * Writes the pending changes of the UI and sends them to the client right
+     * away.
+     *
+     * @param async
+     *            True if this push asynchronously originates from the server,
+     *            false if it is a response to a client request.
+     */
+    void sendPush(boolean async) {
+        try {
+            UI ui = getUI();
+            if (ui.getSession().getConfiguration().isStreamingUidl()) {
+                /*
+                 * Atmosphere broadcasts complete messages, so the push
+                 * message is still collected in memory. Streaming only
+                 * avoids building the intermediate JSON object.
+                 */
+                StringWriter writer = new StringWriter();
+                writer.write("for(;;);[");
+                new UidlWriter().writeUidl(ui, writer, async, false);
+                writer.write("]");
+                sendMessage(writer.toString());
+            } else {
+                JsonObject response = new UidlWriter().createUidl(ui,
                         async);
                 sendMessage("for(;;);[" + response.toJson() + "]");
-            } catch (Exception e) {
-                throw new RuntimeException("Push failed", e);
             }
+        } catch (Exception e) {
+            throw new RuntimeException("Push failed", e);
         }
     }
 
+    /**
+     * Defers an asynchronous push if the previous message is still being
+     * written to a slow client and an access executor is available. Once the
+     * previous message has been written, a single push sends all changes made
+     * in the meantime, so a slow client receives fewer but larger messages
+     * instead of the server queueing up one message per push.
+     *
+     * @return <code>true</code> if the push was deferred, <code>false</code>
+     *         if it should be sent right away
+     */
+    private boolean deferPush() {
+        Future<Object> pending = outgoingMessage;
+        if (pending == null || pending.isDone()) {
+            return false;
+        }
+        if (pushDeferred) {
+            return true;
+        }
+        VaadinSession session = getUI().getSession();
+        Executor executor = session == null ? null
+                : session.getService().getAccessExecutor();
+        if (executor == null) {
+            return false;
+        }
+
+        pushDeferred = true;
+        executor.execute(() -> {
+            boolean sent = waitForMessage(pending);
+            session.access(() -> {
+                pushDeferred = false;
+                if (!isConnected()) {
+                    return;
+                }
+                if (sent) {
+                    push(true);
+                } else {
+                    // Don't wait for a stalled message again
+                    sendPush(true);
+                }
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Waits for a message to be written, at most for the deferred push
+     * timeout.
+     *
+     * @return <code>true</code> if the message is done, <code>false</code> if
+     *         waiting timed out or was interrupted
+     */
+    private boolean waitForMessage(Future<Object> message) {
+        try {
+            message.get(getDeferredPushTimeout(), TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            getLogger().debug("Sending a push message failed", e);
+            return true;
+        } catch (TimeoutException e) {
+            getLogger().info(
+                    "Timeout waiting for a message to be sent to client, pushing deferred changes without waiting",
+                    e);
+            return false;
+        }
+    }
+
+    // non-private for testing purposes
+    long getDeferredPushTimeout() {
+        return DEFERRED_PUSH_TIMEOUT_MS;
+    }
+
     /**
      * Sends the given message to the current client. Cannot be called if
      * {@link #isConnected()} returns false.
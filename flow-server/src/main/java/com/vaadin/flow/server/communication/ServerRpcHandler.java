@@ -314,6 +314,10 @@ public class ServerRpcHandler implements Serializable {
             // Message id ok, process RPCs
             ui.getInternals().setLastProcessedClientToServerId(expectedId,
                     messageHash);
+            // Ids of nodes removed in responses seen by the client can be
+            // reused
+            ui.getInternals().getStateTree()
+                    .confirmClientSyncId(rpcRequest.getSyncId());
             handleInvocations(ui, rpcRequest.getRpcInvocationsData());
         }
 
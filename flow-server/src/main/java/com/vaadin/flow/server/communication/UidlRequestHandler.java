@@ -16,8 +16,10 @@
 
 package com.vaadin.flow.server.communication;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.regex.Matcher;
@@ -108,11 +110,9 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         }
 
-        StringWriter stringWriter = new StringWriter();
-
+        boolean resync = false;
         try {
             getRpcHandler(session).handleRpc(uI, request.getReader(), request);
-            writeUidl(uI, stringWriter, false);
         } catch (JsonException e) {
             getLogger().error("Error writing JSON to response", e);
             // Refresh on client side
@@ -126,7 +126,22 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return true;
         } catch (ResynchronizationRequiredException e) { // NOSONAR
             // Resync on the client side
-            writeUidl(uI, stringWriter, true);
+            resync = true;
+        }
+
+        if (isStreamingUidl(uI)) {
+            streamJsonResponse(uI, response, resync);
+            return true;
+        }
+
+        StringWriter stringWriter = new StringWriter();
+        try {
+            writeUidl(uI, stringWriter, resync);
+        } catch (JsonException e) {
+            getLogger().error("Error writing JSON to response", e);
+            // Refresh on client side
+            writeRefresh(response);
+            return true;
         } finally {
             stringWriter.close();
         }
@@ -135,6 +150,28 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return true;
     }
 
+    /**
+     * Writes the UIDL response directly to the response output stream, so
+     * that the whole response is never held in memory. Since the response is
+     * committed while it is being written, a failure while writing can't be
+     * replaced by a critical notification. The client then treats the
+     * truncated response as a failed request.
+     */
+    private void streamJsonResponse(UI ui, VaadinResponse response,
+            boolean resync) throws IOException {
+        response.setContentType(JsonConstants.JSON_CONTENT_TYPE);
+
+        // Ensure that the browser does not cache UIDL responses.
+        // iOS 6 Safari requires this (#9732)
+        response.setHeader("Cache-Control", "no-cache");
+
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(response.getOutputStream(), UTF_8));
+        writeUidl(ui, writer, resync);
+        // NOTE GateIn requires the buffers to be flushed to work
+        writer.flush();
+    }
+
     private void writeRefresh(VaadinResponse response) throws IOException {
         String json = VaadinService.createCriticalNotificationJSON(null, null,
                 null, null);
@@ -143,6 +180,17 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
 
     void writeUidl(UI ui, Writer writer, boolean resync)
             throws IOException {
+        if (isStreamingUidl(ui)) {
+            // some dirt to prevent cross site scripting
+            writer.write("for(;;);[");
+            new UidlWriter().writeUidl(ui, writer, false, resync,
+                    ui instanceof JavaScriptBootstrapUI
+                            ? this::removeOffendingMprHashFragment
+                            : null);
+            writer.write("]");
+            return;
+        }
+
         JsonObject uidl = createUidl(ui, resync);
 
         if (ui instanceof JavaScriptBootstrapUI) {
@@ -158,6 +206,12 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
         return new UidlWriter().createUidl(ui, false, resync);
     }
 
+    private static boolean isStreamingUidl(UI ui) {
+        VaadinSession session = ui == null ? null : ui.getSession();
+        return session != null
+                && session.getConfiguration().isStreamingUidl();
+    }
+
     private static final Logger getLogger() {
         return LoggerFactory.getLogger(UidlRequestHandler.class.getName());
     }
@@ -225,7 +279,10 @@ public class UidlRequestHandler extends SynchronizedRequestHandler
             return;
         }
 
-        JsonArray exec = uidl.getArray(EXECUTE);
+        removeOffendingMprHashFragment(uidl.getArray(EXECUTE));
+    }
+
+    private void removeOffendingMprHashFragment(JsonArray exec) {
         String location = null;
         int idx = -1;
         for (int i = 0; i < exec.length(); i++) {
@@ -19,17 +19,21 @@ package com.vaadin.flow.server.communication;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import org.apache.commons.io.IOUtils;
@@ -210,8 +214,163 @@ public class UidlWriter implements Serializable {
         return createUidl(ui, async, false);
     }
 
+    /**
+     * Writes all pending changes to the given UI as a JSON object directly to
+     * the given writer.
+     * <p>
+     * The written JSON is equivalent to the serialized result of
+     * {@link #createUidl(UI, boolean, boolean)}, but state tree changes,
+     * constants and JavaScript invocations are serialized one by one while
+     * they are collected instead of first building the whole response as a
+     * {@link JsonObject}. This keeps the memory needed for writing a response
+     * proportional to a single change rather than to the number of changes.
+     * Only the order of the keys in the written object differs.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param writer
+     *            the writer to write the JSON object to
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message
+     * @param resync
+     *            True iff the client should be asked to resynchronize
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    public void writeUidl(UI ui, Writer writer, boolean async, boolean resync)
+            throws IOException {
+        writeUidl(ui, writer, async, resync, null);
+    }
+
+    /**
+     * Writes the UIDL of the given UI like
+     * {@link #writeUidl(UI, Writer, boolean, boolean)}, but lets the caller
+     * post-process the JavaScript invocations before they are written. Only
+     * the invocations are kept in memory as a JSON array, the rest of the
+     * response is still streamed.
+     *
+     * @param ui
+     *            The {@link UI} whose changes to write
+     * @param writer
+     *            the writer to write the JSON object to
+     * @param async
+     *            True if this message is sent by the server asynchronously,
+     *            false if it is a response to a client message
+     * @param resync
+     *            True iff the client should be asked to resynchronize
+     * @param executeProcessor
+     *            a consumer that may modify the encoded JavaScript invocations
+     *            before they are written, or <code>null</code> to write them
+     *            as they are
+     * @throws IOException
+     *             if writing to the writer fails
+     */
+    void writeUidl(UI ui, Writer writer, boolean async, boolean resync,
+            Consumer<JsonArray> executeProcessor) throws IOException {
+        UIInternals uiInternals = ui.getInternals();
+
+        VaadinSession session = ui.getSession();
+        VaadinService service = session.getService();
+
+        // Purge pending access calls as they might produce additional changes
+        // to write out
+        service.runPendingAccessTasks(session);
+
+        getLogger().debug("* Streaming response to client");
+
+        int syncId = service.getDeploymentConfiguration().isSyncIdCheckEnabled()
+                ? uiInternals.getServerSyncId()
+                : -1;
+
+        writer.write('{');
+        writeKey(writer, ApplicationConstants.SERVER_SYNC_ID, true);
+        writer.write(Integer.toString(syncId));
+        if (resync) {
+            writeKey(writer, ApplicationConstants.RESYNCHRONIZE_ID, false);
+            writer.write(Boolean.TRUE.toString());
+        }
+        int nextClientToServerMessageId = uiInternals
+                .getLastProcessedClientToServerId() + 1;
+        writeKey(writer, ApplicationConstants.CLIENT_TO_SERVER_ID, false);
+        writer.write(Integer.toString(nextClientToServerMessageId));
+
+        SystemMessages messages = ui.getSession().getService()
+                .getSystemMessages(ui.getLocale(), null);
+
+        JsonObject meta = new MetadataWriter().createMetadata(ui, false, async,
+                messages);
+        if (meta.keys().length > 0) {
+            writeKey(writer, "meta", false);
+            writer.write(meta.toJson());
+        }
+
+        try {
+            writeChanges(ui, writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Map<LoadMode, JsonArray> dependencies = collectDependencies(
+                uiInternals.getDependencyList(),
+                new ResolveContext(service, session.getBrowser()));
+        for (Map.Entry<LoadMode, JsonArray> entry : dependencies.entrySet()) {
+            writeKey(writer, entry.getKey().name(), false);
+            writer.write(entry.getValue().toJson());
+        }
+
+        if (uiInternals.getConstantPool().hasNewConstants()) {
+            writeKey(writer, "constants", false);
+            uiInternals.getConstantPool().dumpConstants(writer);
+        }
+
+        List<PendingJavaScriptInvocation> executeJavaScriptList = uiInternals
+                .dumpPendingJavaScriptInvocations();
+        if (!executeJavaScriptList.isEmpty() && executeProcessor != null) {
+            JsonArray execute = encodeExecuteJavaScriptList(
+                    executeJavaScriptList);
+            executeProcessor.accept(execute);
+            writeKey(writer, JsonConstants.UIDL_KEY_EXECUTE, false);
+            writer.write(execute.toJson());
+        } else if (!executeJavaScriptList.isEmpty()) {
+            writeKey(writer, JsonConstants.UIDL_KEY_EXECUTE, false);
+            writer.write('[');
+            for (int i = 0; i < executeJavaScriptList.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(encodeExecuteJavaScript(
+                        executeJavaScriptList.get(i)).toJson());
+            }
+            writer.write(']');
+        }
+        if (ui.getSession().getService().getDeploymentConfiguration()
+                .isRequestTiming()) {
+            writeKey(writer, "timings", false);
+            writer.write(createPerformanceData(ui).toJson());
+        }
+        writer.write('}');
+        uiInternals.incrementServerId();
+    }
+
+    private static void writeKey(Writer writer, String key, boolean first)
+            throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        writer.write(Json.create(key).toJson());
+        writer.write(':');
+    }
+
     private static void populateDependencies(JsonObject response,
             DependencyList dependencyList, ResolveContext context) {
+        collectDependencies(dependencyList, context).forEach(
+                (loadMode, dependencies) -> response.put(loadMode.name(),
+                        dependencies));
+    }
+
+    private static Map<LoadMode, JsonArray> collectDependencies(
+            DependencyList dependencyList, ResolveContext context) {
         Collection<Dependency> pendingSendToClient = dependencyList
                 .getPendingSendToClient();
 
@@ -221,12 +380,12 @@ public class UidlWriter implements Serializable {
                     new ArrayList<>(pendingSendToClient), context.getService());
         }
 
+        Map<LoadMode, JsonArray> result = Collections.emptyMap();
         if (!pendingSendToClient.isEmpty()) {
-            groupDependenciesByLoadMode(pendingSendToClient, context)
-                    .forEach((loadMode, dependencies) -> response
-                            .put(loadMode.name(), dependencies));
+            result = groupDependenciesByLoadMode(pendingSendToClient, context);
         }
         dependencyList.clearPendingSendToClient();
+        return result;
     }
 
     private static Map<LoadMode, JsonArray> groupDependenciesByLoadMode(
@@ -383,6 +542,52 @@ public class UidlWriter implements Serializable {
      * @see StateTree#runExecutionsBeforeClientResponse()
      */
     private void encodeChanges(UI ui, JsonArray stateChanges) {
+        UIInternals uiInternals = ui.getInternals();
+        collectChanges(ui, change -> stateChanges.set(stateChanges.length(),
+                change.toJson(uiInternals.getConstantPool())));
+    }
+
+    /**
+     * Writes the state tree changes of the given UI as the
+     * <code>changes</code> member of a JSON object, serializing each change
+     * directly to the writer as it is collected. Nothing is written if there
+     * are no changes.
+     * <p>
+     * {@link IOException}s are rethrown wrapped in an
+     * {@link UncheckedIOException}.
+     *
+     * @param ui
+     *            the UI
+     * @param writer
+     *            the writer to write the changes to
+     */
+    private void writeChanges(UI ui, Writer writer) {
+        UIInternals uiInternals = ui.getInternals();
+        int[] count = new int[1];
+        collectChanges(ui, change -> {
+            try {
+                if (count[0]++ == 0) {
+                    writeKey(writer, "changes", false);
+                    writer.write('[');
+                } else {
+                    writer.write(',');
+                }
+                writer.write(
+                        change.toJson(uiInternals.getConstantPool()).toJson());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        if (count[0] > 0) {
+            try {
+                writer.write(']');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void collectChanges(UI ui, Consumer<NodeChange> encoder) {
         UIInternals uiInternals = ui.getInternals();
         StateTree stateTree = uiInternals.getStateTree();
 
@@ -397,8 +602,7 @@ public class UidlWriter implements Serializable {
             }
 
             // Encode the actual change
-            stateChanges.set(stateChanges.length(),
-                    change.toJson(uiInternals.getConstantPool()));
+            encoder.accept(change);
         });
 
         componentsWithDependencies
@@ -15,6 +15,9 @@
  */
 package com.vaadin.flow.internal;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -74,4 +77,29 @@ public class ConstantPoolTest {
         Assert.assertNotEquals(constantId, otherId);
         Assert.assertTrue(constantPool.hasNewConstants());
     }
+
+    @Test
+    public void of_sameValue_sameKeyInstance() {
+        ConstantPoolKey key = ConstantPoolKey.of(Json.create("of-test"));
+
+        Assert.assertSame(key, ConstantPoolKey.of(Json.create("of-test")));
+        Assert.assertNotSame(key, ConstantPoolKey.of(Json.create("other")));
+        Assert.assertEquals(
+                new ConstantPoolKey(Json.create("of-test")).getId(),
+                key.getId());
+    }
+
+    @Test
+    public void streamedDump_sameAsJsonDump() throws IOException {
+        ConstantPool otherPool = new ConstantPool();
+        ConstantPoolKey key = ConstantPoolKey.of(Json.createArray());
+        constantPool.getConstantId(key);
+        otherPool.getConstantId(key);
+
+        StringWriter writer = new StringWriter();
+        constantPool.dumpConstants(writer);
+
+        Assert.assertEquals(otherPool.dumpConstants().toJson(),
+                writer.toString());
+    }
 }
@@ -26,6 +26,7 @@ import java.net.URLConnection;
 import java.net.URLStreamHandler;
 import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
@@ -342,6 +343,92 @@ public class ResponseWriterTest {
         assertResponse(fileJsContents);
     }
 
+    @Test
+    public void parseRanges() {
+        Assert.assertNull(ResponseWriter.parseRanges(null, 100));
+        Assert.assertNull(ResponseWriter.parseRanges("items=0-10", 100));
+        Assert.assertNull(ResponseWriter.parseRanges("bytes=", 100));
+        Assert.assertNull(ResponseWriter.parseRanges("bytes=10-5", 100));
+        Assert.assertNull(ResponseWriter.parseRanges("bytes=a-b", 100));
+
+        assertRanges("bytes=0-9", 100, 0, 9);
+        assertRanges("bytes=90-", 100, 90, 99);
+        assertRanges("bytes=-10", 100, 90, 99);
+        assertRanges("bytes=-200", 100, 0, 99);
+        assertRanges("bytes=50-500", 100, 50, 99);
+        assertRanges("bytes=150-, 20-29,0-9, 5-14", 100, 0, 14, 20, 29);
+
+        Assert.assertTrue(
+                ResponseWriter.parseRanges("bytes=100-200", 100).isEmpty());
+        Assert.assertTrue(ResponseWriter.parseRanges("bytes=-0", 100).isEmpty());
+
+        StringBuilder tooMany = new StringBuilder("bytes=0-0");
+        for (int i = 1; i <= ResponseWriter.MAX_RANGE_COUNT; i++) {
+            tooMany.append(',').append(i * 2).append('-').append(i * 2);
+        }
+        Assert.assertNull(
+                ResponseWriter.parseRanges(tooMany.toString(), 100));
+    }
+
+    @Test
+    public void writeSingleRange() throws IOException {
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=5-12");
+
+        Assert.assertTrue(responseWriter.writeRangeResponseContents(PATH_JS,
+                pathToUrl.get(PATH_JS), request, response));
+
+        Mockito.verify(response)
+                .setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        Mockito.verify(response).setHeader("Content-Range", "bytes 5-12/"
+                + fileJsContents.length);
+        Assert.assertEquals("js conte",
+                new String(out.getOutput(), StandardCharsets.UTF_8));
+        Assert.assertEquals(8, responseContentLength.get());
+    }
+
+    @Test
+    public void writeMultipleRanges() throws IOException {
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=-4,0-3");
+
+        Assert.assertTrue(responseWriter.writeRangeResponseContents(PATH_JS,
+                pathToUrl.get(PATH_JS), request, response));
+
+        String output = new String(out.getOutput(), StandardCharsets.US_ASCII);
+        Assert.assertTrue(output.contains("Content-Range: bytes 0-3/16\r\n\r\nFile"));
+        Assert.assertTrue(output.contains("Content-Range: bytes 12-15/16\r\n\r\nents"));
+        Assert.assertTrue(output.indexOf("File") < output.indexOf("ents"));
+        Assert.assertTrue(output.endsWith("--\r\n"));
+        Assert.assertEquals(out.getOutput().length,
+                responseContentLength.get());
+    }
+
+    @Test
+    public void writeUnsatisfiableRange() throws IOException {
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=100-");
+
+        Assert.assertTrue(responseWriter.writeRangeResponseContents(PATH_JS,
+                pathToUrl.get(PATH_JS), request, response));
+
+        Mockito.verify(response).setStatus(
+                HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        Mockito.verify(response).setHeader("Content-Range", "bytes */16");
+    }
+
+    private static void assertRanges(String header, long length,
+            long... expectedBounds) {
+        List<ResponseWriter.ByteRange> ranges = ResponseWriter
+                .parseRanges(header, length);
+        Assert.assertEquals(expectedBounds.length / 2, ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            Assert.assertEquals(expectedBounds[i * 2], ranges.get(i).start);
+            Assert.assertEquals(expectedBounds[i * 2 + 1], ranges.get(i).end);
+        }
+    }
+
     private void assertResponse(byte[] expectedResponse) throws IOException {
         assertResponse(PATH_JS, expectedResponse);
     }
@@ -39,6 +39,7 @@ import org.junit.Test;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.dom.Element;
 import com.vaadin.flow.dom.ElementFactory;
+import com.vaadin.flow.internal.change.EmptyChange;
 import com.vaadin.flow.internal.change.MapPutChange;
 import com.vaadin.flow.internal.change.NodeAttachChange;
 import com.vaadin.flow.internal.change.NodeChange;
@@ -551,6 +552,35 @@ public class StateNodeTest {
                 stateNode.isReportedFeature(ElementAttributeMap.class));
     }
 
+    @Test
+    public void requiredFeatures_initializedAndReportedWhenAttached() {
+        StateNode stateNode = new StateNode(
+                Arrays.asList(ElementClassList.class, ElementPropertyMap.class),
+                ElementAttributeMap.class);
+
+        Assert.assertFalse(stateNode
+                .getFeatureIfInitialized(ElementPropertyMap.class).isPresent());
+
+        TestStateTree tree = new TestStateTree();
+        tree.getRootNode().getFeature(ElementChildrenList.class).add(0,
+                stateNode);
+
+        List<NodeChange> changes = new ArrayList<>();
+        stateNode.collectChanges(changes::add);
+
+        Assert.assertTrue(stateNode
+                .getFeatureIfInitialized(ElementPropertyMap.class).isPresent());
+        Assert.assertFalse(stateNode
+                .getFeatureIfInitialized(ElementAttributeMap.class)
+                .isPresent());
+        Assert.assertEquals(
+                new HashSet<>(Arrays.asList(ElementClassList.class,
+                        ElementPropertyMap.class)),
+                changes.stream().filter(EmptyChange.class::isInstance)
+                        .map(change -> ((EmptyChange) change).getFeature())
+                        .collect(Collectors.toSet()));
+    }
+
     @Test
     public void collectChanges_initiallyActiveElement_sendOnlyDisalowFeatureChangesWhenInactive() {
         StateNode stateNode = createTestNode("Active node",
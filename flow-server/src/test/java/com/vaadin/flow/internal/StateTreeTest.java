@@ -34,6 +34,7 @@ import org.mockito.Mockito;
 
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.internal.UIInternals;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.internal.change.ListAddChange;
 import com.vaadin.flow.internal.change.ListRemoveChange;
@@ -231,6 +232,33 @@ public class StateTreeTest {
                 tree.collectDirtyNodes().toArray());
     }
 
+    @Test
+    public void markAsDirty_sameNodeMarkedRepeatedly_collectedOnce() {
+        StateNode rootNode = tree.getRootNode();
+        StateNode node = StateNodeTest.createEmptyNode("node");
+        StateNodeTest.setParent(node, rootNode);
+
+        tree.collectChanges(change -> {
+        });
+        Assert.assertFalse(tree.hasDirtyNodes());
+
+        node.markAsDirty();
+        rootNode.markAsDirty();
+        node.markAsDirty();
+
+        Assert.assertArrayEquals(new Object[] { node, rootNode },
+                tree.collectDirtyNodes().toArray());
+
+        tree.collectChanges(change -> {
+        });
+        Assert.assertFalse(tree.hasDirtyNodes());
+
+        // The node can be marked dirty again after the collection
+        node.markAsDirty();
+        Assert.assertArrayEquals(new Object[] { node },
+                tree.collectDirtyNodes().toArray());
+    }
+
     @Test
     public void testDetachInChanges() {
         StateNode node1 = tree.getRootNode();
@@ -316,6 +344,23 @@ public class StateTreeTest {
         Assert.assertNotNull(d1);
     }
 
+    @Test
+    public void deserializedTree_nodeMarkedAsDirty_nodeCollected() {
+        tree.collectChanges(change -> {
+        });
+
+        StateTree deserialized = SerializationUtils.deserialize(
+                SerializationUtils.serialize(tree));
+        Assert.assertFalse(deserialized.hasDirtyNodes());
+
+        StateNode rootNode = deserialized.getRootNode();
+        rootNode.markAsDirty();
+        rootNode.markAsDirty();
+
+        Assert.assertArrayEquals(new Object[] { rootNode },
+                deserialized.collectDirtyNodes().toArray());
+    }
+
     @Test
     public void reattachedNodeRetainsId() throws InterruptedException {
         StateNode child = new StateNode(ElementChildrenList.class);
@@ -356,6 +401,66 @@ public class StateTreeTest {
         Assert.assertSame(grandChild, tree.getNodeById(grandChildId));
     }
 
+    @Test
+    public void unregister_idReusedOnlyAfterClientHasSeenRemoval() {
+        UIInternals internals = tree.getUI().getInternals();
+        ElementChildrenList children = tree.getRootNode()
+                .getFeature(ElementChildrenList.class);
+
+        StateNode child = new StateNode(ElementChildrenList.class);
+        children.add(0, child);
+        int childId = child.getId();
+
+        // Response 0 is sent and the client confirms it
+        internals.incrementServerId();
+        tree.confirmClientSyncId(0);
+
+        // Removal will be sent in response 1
+        children.remove(0);
+
+        StateNode second = new StateNode(ElementChildrenList.class);
+        children.add(0, second);
+        Assert.assertNotEquals(childId, second.getId());
+
+        tree.confirmClientSyncId(0);
+        StateNode third = new StateNode(ElementChildrenList.class);
+        children.add(0, third);
+        Assert.assertNotEquals(childId, third.getId());
+
+        // Response 1 is sent and the client confirms it
+        internals.incrementServerId();
+        tree.confirmClientSyncId(1);
+
+        StateNode fourth = new StateNode(ElementChildrenList.class);
+        children.add(0, fourth);
+        Assert.assertEquals(childId, fourth.getId());
+        Assert.assertSame(fourth, tree.getNodeById(childId));
+
+        Assert.assertEquals(4, tree.getNodeCount());
+        Assert.assertEquals(5, tree.getNodeIdCapacity());
+
+        // The removed node gets a new id if attached again
+        children.add(0, child);
+        Assert.assertNotEquals(childId, child.getId());
+        Assert.assertSame(fourth, tree.getNodeById(childId));
+    }
+
+    @Test
+    public void unregister_withoutClientConfirmation_idsNotReused() {
+        ElementChildrenList children = tree.getRootNode()
+                .getFeature(ElementChildrenList.class);
+
+        StateNode child = new StateNode(ElementChildrenList.class);
+        children.add(0, child);
+        int childId = child.getId();
+        children.remove(0);
+
+        StateNode other = new StateNode(ElementChildrenList.class);
+        children.add(0, other);
+        Assert.assertNotEquals(childId, other.getId());
+        Assert.assertNull(tree.getNodeById(childId));
+    }
+
     @Test
     public void detachedNodeGarbageCollected() throws InterruptedException {
         StateNode child = new StateNode(ElementChildrenList.class);
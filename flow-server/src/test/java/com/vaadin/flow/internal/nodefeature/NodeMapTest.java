@@ -16,7 +16,10 @@
 
 package com.vaadin.flow.internal.nodefeature;
 
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -372,4 +375,72 @@ public class NodeMapTest
                     "Should not happen, but forEachChild shouldn't explode either");
         });
     }
+
+    @Test
+    public void put_fewKeys_useArrayMap_manyKeys_useHashMap() {
+        for (int i = 0; i < 8; i++) {
+            nodeMap.put("key" + i, Integer.valueOf(i));
+        }
+        Assert.assertTrue(nodeMap.usesArrayMap());
+
+        nodeMap.put("key3", "replaced");
+        nodeMap.remove("key0");
+        nodeMap.put("key8", Integer.valueOf(8));
+        Assert.assertTrue(nodeMap.usesArrayMap());
+
+        nodeMap.put("key9", Integer.valueOf(9));
+        Assert.assertFalse(nodeMap.usesArrayMap());
+
+        Assert.assertEquals(9, nodeMap.keySet().size());
+        Assert.assertFalse(nodeMap.contains("key0"));
+        Assert.assertEquals("replaced", nodeMap.get("key3"));
+        for (int i = 4; i < 10; i++) {
+            Assert.assertEquals(Integer.valueOf(i), nodeMap.get("key" + i));
+        }
+    }
+
+    @Test
+    public void remove_allKeysFromArrayMap_noValues() {
+        nodeMap.put("foo", "bar");
+        nodeMap.put("baz", "qux");
+        Assert.assertTrue(nodeMap.usesArrayMap());
+
+        nodeMap.remove("baz");
+        Assert.assertEquals(Collections.singleton("foo"), nodeMap.keySet());
+
+        nodeMap.remove("foo");
+        Assert.assertTrue(nodeMap.keySet().isEmpty());
+        Assert.assertFalse(nodeMap.usesArrayMap());
+    }
+
+    @Test
+    public void arrayMapKeySet_removeThroughIterator() {
+        nodeMap.put("foo", "bar");
+        nodeMap.put("baz", "qux");
+        nodeMap.put("quux", "corge");
+        Assert.assertTrue(nodeMap.usesArrayMap());
+
+        Iterator<String> iterator = nodeMap.keySet().iterator();
+        Assert.assertEquals("foo", iterator.next());
+        iterator.remove();
+        Assert.assertEquals("baz", iterator.next());
+        Assert.assertEquals("quux", iterator.next());
+        Assert.assertFalse(iterator.hasNext());
+
+        Assert.assertTrue(nodeMap.keySet().remove("quux"));
+        Assert.assertFalse(nodeMap.keySet().remove("foo"));
+        Assert.assertEquals(Collections.singleton("baz"), nodeMap.keySet());
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void arrayMapKeySet_modifiedWhileIterating_throws() {
+        nodeMap.put("foo", "bar");
+        nodeMap.put("baz", "qux");
+        nodeMap.put("quux", "corge");
+
+        Iterator<String> iterator = nodeMap.keySet().iterator();
+        iterator.next();
+        nodeMap.remove("foo");
+        iterator.next();
+    }
 }
@@ -18,6 +18,7 @@ package com.vaadin.flow.router;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -210,6 +211,30 @@ public class EventUtilTest {
                 beforeNavigationObservers.size());
     }
 
+    @Test
+    public void collectBeforeLeaveObservers_detachedObserverIsNotCollected_orderFollowsTree() {
+        UI ui = UI.getCurrent();
+
+        LeaveObserver first = new LeaveObserver();
+        LeaveObserver second = new LeaveObserver();
+        Element wrapper = new Element("wrapper");
+        wrapper.appendChild(second.getElement());
+        ui.getElement().appendChild(first.getElement(), wrapper);
+
+        Assert.assertEquals(Arrays.asList(first, second),
+                EventUtil.collectBeforeLeaveObservers(ui));
+
+        ui.getElement().removeChild(first.getElement());
+
+        Assert.assertEquals(Collections.singletonList(second),
+                EventUtil.collectBeforeLeaveObservers(ui));
+
+        ui.getElement().insertChild(0, first.getElement());
+
+        Assert.assertEquals(Arrays.asList(first, second),
+                EventUtil.collectBeforeLeaveObservers(ui));
+    }
+
     @Test
     public void inspectChildrenHierarchy() throws Exception {
         Element node = new Element("root");
@@ -20,6 +20,7 @@ import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.router.Route;
 import com.vaadin.flow.router.RouteBaseData;
+import com.vaadin.flow.router.RouteData;
 import com.vaadin.flow.router.RouterLayout;
 import com.vaadin.flow.router.RoutesChangedEvent;
 import com.vaadin.flow.shared.Registration;
@@ -71,6 +72,27 @@ public class AbstractRouteRegistryTest {
                 2, registry.getRegisteredRoutes().size());
     }
 
+    @Test
+    public void registeredRoutes_reusedUntilConfigurationChanges() {
+        registry.setRoute("", MyRoute.class, Collections.emptyList());
+
+        List<RouteData> routes = registry.getRegisteredRoutes();
+        Assert.assertSame(routes, registry.getRegisteredRoutes());
+
+        registry.update(() -> {
+            registry.setRoute("path", Secondary.class,
+                    Collections.emptyList());
+            Assert.assertEquals(
+                    "Routes being configured should be visible while editing",
+                    2, registry.getRegisteredRoutes().size());
+        });
+
+        List<RouteData> updatedRoutes = registry.getRegisteredRoutes();
+        Assert.assertNotSame(routes, updatedRoutes);
+        Assert.assertEquals(2, updatedRoutes.size());
+        Assert.assertSame(updatedRoutes, registry.getRegisteredRoutes());
+    }
+
     @Test
     public void routeChangeListener_correctChangesAreReturned() {
         List<RouteBaseData> added = new ArrayList<>();
@@ -275,6 +275,28 @@ public class RouteModelTest {
         }
     }
 
+    @Test
+    public void immutable_model_caches_navigation_route_targets() {
+        RouteModel mutable = getRouteModel();
+        RouteModel immutable = RouteModel.copy(mutable, false);
+
+        assertNavigation(immutable, "trunk/twig/a/b/c", Twig.class,
+                parameters("leafs", varargs("a", "b", "c")));
+        Assert.assertSame(immutable.getNavigationRouteTarget("trunk/twig"),
+                immutable.getNavigationRouteTarget("trunk/twig"));
+
+        for (int i = 0; i <= RouteModel.NAVIGATION_CACHE_SIZE; i++) {
+            immutable.getNavigationRouteTarget("trunk/branch/" + i);
+        }
+        assertNavigation(immutable, "trunk/branch/12", Branch.class,
+                parameters("id", "12"));
+        assertNavigation(immutable, "trunk/twig/a/b/c", Twig.class,
+                parameters("leafs", varargs("a", "b", "c")));
+
+        Assert.assertNotSame(mutable.getNavigationRouteTarget("trunk/twig"),
+                mutable.getNavigationRouteTarget("trunk/twig"));
+    }
+
     private void assertUrl(RouteModel root, String expectedUrl,
             String template, RouteParameters parameters) {
         final String modelUrl = root.getUrl(template, parameters);
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class InstrumentedSessionLockTest {
+
+    private SessionLockMetrics metrics = new SessionLockMetrics();
+
+    @Test
+    public void reentrantLocking_onlyOutermostAcquisitionRecorded() {
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(false,
+                metrics, 0);
+
+        lock.lock();
+        lock.lock();
+        Assert.assertSame(Thread.currentThread(), lock.getOwnerThread());
+        lock.unlock();
+        lock.unlock();
+
+        Assert.assertNull(lock.getOwnerThread());
+        Assert.assertEquals(1, metrics.getAcquireCount());
+        Assert.assertEquals(0, metrics.getContendedCount());
+        Assert.assertEquals(1, LongStream
+                .of(metrics.getWaitTimeHistogram()).sum());
+    }
+
+    @Test
+    public void contendedLocking_waitAndSlowAcquireRecorded()
+            throws InterruptedException {
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(true,
+                metrics, 10);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread owner = new Thread(() -> {
+            lock.lock();
+            try {
+                locked.countDown();
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+        });
+        owner.start();
+        locked.await();
+
+        Thread releaser = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            release.countDown();
+        });
+        releaser.start();
+
+        lock.lock();
+        lock.unlock();
+        owner.join();
+        releaser.join();
+
+        Assert.assertTrue(lock.isFair());
+        Assert.assertEquals(2, metrics.getAcquireCount());
+        Assert.assertEquals(1, metrics.getContendedCount());
+        Assert.assertEquals(1, metrics.getSlowAcquireCount());
+        Assert.assertTrue(metrics.getMaxWaitTime(TimeUnit.MILLISECONDS) >= 10);
+    }
+
+    @Test
+    public void tryLock_failedAttemptNotRecorded() throws InterruptedException {
+        InstrumentedSessionLock lock = new InstrumentedSessionLock(false,
+                metrics, 0);
+
+        Thread other = new Thread(lock::lock);
+        other.start();
+        other.join();
+
+        Assert.assertFalse(lock.tryLock());
+        Assert.assertFalse(lock.tryLock(1, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(1, metrics.getAcquireCount());
+    }
+}
@@ -457,6 +457,128 @@ public class StaticFileServerTest implements Serializable {
         Assert.assertArrayEquals(fileData, out.getOutput());
     }
 
+    @Test
+    public void staticResourceCache_matchingETag_notModifiedWithoutLookup()
+            throws IOException {
+        Mockito.when(configuration.isStaticResourceCacheEnabled())
+                .thenReturn(true);
+        Mockito.when(configuration.getStaticResourceCacheMaxFileSize())
+                .thenReturn(1024);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+        Assert.assertEquals(fileData.length, responseContentLength.get());
+        String eTag = headers.get("ETag");
+        Assert.assertNotNull(eTag);
+
+        Mockito.when(request.getHeader("If-None-Match"))
+                .thenReturn("\"other\", " + eTag);
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_NOT_MODIFIED,
+                responseCode.get());
+        Assert.assertEquals(fileData.length, out.getOutput().length);
+        Mockito.verify(servletService, Mockito.times(1))
+                .getStaticResource("/some/file.js");
+    }
+
+    @Test
+    public void staticResourceCache_gzipAccepted_compressedVariantServed()
+            throws IOException {
+        Mockito.when(configuration.isStaticResourceCacheEnabled())
+                .thenReturn(true);
+        Mockito.when(configuration.getStaticResourceCacheMaxFileSize())
+                .thenReturn(1024);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] gzipData = "fake gzip".getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(servletService.getStaticResource("/some/file.js.gz"))
+                .thenReturn(createFileURLWithDataAndLength(
+                        "/some/file.js.gz", gzipData));
+        Mockito.when(request.getHeader("Accept-Encoding"))
+                .thenReturn("gzip, deflate");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(gzipData, out.getOutput());
+        Assert.assertEquals("gzip", headers.get("Content-Encoding"));
+        Assert.assertEquals("Accept-Encoding", headers.get("Vary"));
+        Assert.assertTrue(headers.get("ETag").endsWith("-gzip\""));
+    }
+
+    @Test
+    public void serveStaticResource_rangeRequest_partialContent()
+            throws IOException {
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=0-7");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT,
+                responseCode.get());
+        Assert.assertEquals("bytes", headers.get("Accept-Ranges"));
+        Assert.assertEquals("bytes 0-7/" + fileData.length,
+                headers.get("Content-Range"));
+        Assert.assertEquals("function",
+                new String(out.getOutput(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void staticResourceCache_ifRangeMismatch_fullContent()
+            throws IOException {
+        Mockito.when(configuration.isStaticResourceCacheEnabled())
+                .thenReturn(true);
+        Mockito.when(configuration.getStaticResourceCacheMaxFileSize())
+                .thenReturn(1024);
+        fileServer = new OverrideableStaticFileServer(servletService);
+
+        setupRequestURI("", "/some", "/file.js");
+        byte[] fileData = "function() {eval('foo');};"
+                .getBytes(StandardCharsets.UTF_8);
+        Mockito.when(servletService.getStaticResource("/some/file.js"))
+                .thenReturn(createFileURLWithDataAndLength("/some/file.js",
+                        fileData));
+        Mockito.when(request.getHeader("Range")).thenReturn("bytes=0-7");
+        Mockito.when(request.getHeader("If-Range")).thenReturn("\"stale\"");
+        CapturingServletOutputStream out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertArrayEquals(fileData, out.getOutput());
+
+        out = new CapturingServletOutputStream();
+        Mockito.when(response.getOutputStream()).thenReturn(out);
+        Mockito.when(request.getHeader("If-Range"))
+                .thenReturn(headers.get("ETag"));
+        Assert.assertTrue(fileServer.serveStaticResource(request, response));
+        Assert.assertEquals(HttpServletResponse.SC_PARTIAL_CONTENT,
+                responseCode.get());
+        Assert.assertEquals("function",
+                new String(out.getOutput(), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void contextAndServletPath_serveStaticBundleBuildResource()
             throws IOException {
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2000-2020 Vaadin Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package com.vaadin.flow.server;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.CurrentInstance;
+import com.vaadin.tests.util.MockUI;
+
+public class UIBroadcasterTest {
+
+    private MockVaadinServletService service = new MockVaadinServletService();
+
+    @After
+    public void tearDown() {
+        CurrentInstance.clearAll();
+    }
+
+    @Test
+    public void broadcast_noWindow_updateRunForEachUIAsCurrentUI() {
+        VaadinSession session1 = new MockVaadinSession(service);
+        VaadinSession session2 = new MockVaadinSession(service);
+        UI ui1 = new MockUI(session1);
+        UI ui2 = new MockUI(session1);
+        UI ui3 = new MockUI(session2);
+        CurrentInstance.clearAll();
+
+        List<UI> updated = new ArrayList<>();
+        new UIBroadcaster(0).broadcast(Arrays.asList(ui1, ui2, ui3), ui -> {
+            Assert.assertSame(ui, UI.getCurrent());
+            Assert.assertTrue(ui.getSession().hasLock());
+            updated.add(ui);
+        });
+
+        Assert.assertEquals(Arrays.asList(ui1, ui2, ui3), updated);
+        Assert.assertNull(UI.getCurrent());
+    }
+
+    @Test
+    public void broadcast_sameKeyWithinWindow_onlyLatestUpdateRun() {
+        UI ui = new MockUI(new MockVaadinSession(service));
+        CurrentInstance.clearAll();
+
+        List<String> values = new ArrayList<>();
+        UIBroadcaster broadcaster = new UIBroadcaster(60000);
+        broadcaster.broadcast(Collections.singleton(ui), "ticker",
+                item -> values.add("first"));
+        broadcaster.broadcast(Collections.singleton(ui), "ticker",
+                item -> values.add("second"));
+        broadcaster.broadcast(Collections.singleton(ui),
+                item -> values.add("unkeyed"));
+        Assert.assertTrue(values.isEmpty());
+
+        broadcaster.flush();
+        broadcaster.close();
+
+        Assert.assertEquals(Arrays.asList("second", "unkeyed"), values);
+    }
+
+    @Test
+    public void broadcast_window_deliveredOutsideSchedulerThread()
+            throws InterruptedException {
+        UI ui = new MockUI(new MockVaadinSession(service));
+        CurrentInstance.clearAll();
+
+        CountDownLatch delivered = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        UIBroadcaster broadcaster = new UIBroadcaster(10);
+        broadcaster.broadcast(Collections.singleton(ui), item -> {
+            threadName.set(Thread.currentThread().getName());
+            delivered.countDown();
+        });
+
+        Assert.assertTrue(delivered.await(5, TimeUnit.SECONDS));
+        broadcaster.close();
+
+        Assert.assertTrue(threadName.get(),
+                threadName.get().startsWith("vaadin-broadcaster-delivery-"));
+    }
+
+    @Test
+    public void broadcast_failingUpdate_otherUIsStillUpdated() {
+        VaadinSession session = new MockVaadinSession(service);
+        UI failing = new MockUI(session);
+        UI other = new MockUI(session);
+        CurrentInstance.clearAll();
+
+        List<UI> updated = new ArrayList<>();
+        new UIBroadcaster(0).broadcast(Arrays.asList(failing, other), ui -> {
+            if (ui == failing) {
+                throw new IllegalStateException("Failing update");
+            }
+            updated.add(ui);
+        });
+
+        Assert.assertEquals(Collections.singletonList(other), updated);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void broadcast_closed_throws() {
+        UIBroadcaster broadcaster = new UIBroadcaster(0);
+        broadcaster.close();
+        broadcaster.broadcast(Collections.emptyList(), ui -> {
+        });
+    }
+}
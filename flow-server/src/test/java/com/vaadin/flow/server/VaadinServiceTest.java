@@ -22,7 +22,9 @@ import javax.servlet.http.HttpSessionBindingEvent;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -90,6 +92,64 @@ public class VaadinServiceTest {
                 e -> Constants.STATISTIC_ROUTING_SERVER.equals(e.getName())));
     }
 
+    @Test
+    public void getAccessExecutor_asyncAccessNotEnabled_noExecutor() {
+        MockVaadinServletService service = new MockVaadinServletService();
+
+        Assert.assertNull(service.getAccessExecutor());
+    }
+
+    @Test
+    public void accessSession_asyncAccessEnabled_taskRunByExecutor()
+            throws Exception {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS, "true");
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration);
+        Assert.assertNotNull(service.getAccessExecutor());
+
+        VaadinSession session = new MockVaadinSession(service);
+        AtomicReference<Thread> executingThread = new AtomicReference<>();
+
+        session.access(
+                () -> executingThread.set(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertNotNull(executingThread.get());
+        Assert.assertNotSame(Thread.currentThread(), executingThread.get());
+        Assert.assertTrue(session.getPendingAccessQueue().isEmpty());
+
+        service.destroy();
+    }
+
+    @Test
+    public void accessSession_asyncAccessEnabled_serviceDestroyed_taskRunInCurrentThread()
+            throws Exception {
+        MockDeploymentConfiguration configuration = new MockDeploymentConfiguration();
+        configuration.setApplicationOrSystemProperty(
+                InitParameters.SERVLET_PARAMETER_ASYNC_ACCESS, "true");
+        MockVaadinServletService service = new MockVaadinServletService(
+                configuration);
+        Assert.assertNotNull(service.getAccessExecutor());
+        service.destroy();
+
+        VaadinSession session = new MockVaadinSession(service);
+        AtomicReference<Thread> executingThread = new AtomicReference<>();
+
+        session.access(() -> executingThread.set(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+
+        Assert.assertSame(Thread.currentThread(), executingThread.get());
+        Assert.assertTrue(session.getPendingAccessQueue().isEmpty());
+
+        // The queue is still purged for later tasks
+        executingThread.set(null);
+        session.access(() -> executingThread.set(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+        Assert.assertSame(Thread.currentThread(), executingThread.get());
+    }
+
     @Test
     public void should_reported_routing_hybrid() {
         VaadinServiceInitListener initListener = event -> {
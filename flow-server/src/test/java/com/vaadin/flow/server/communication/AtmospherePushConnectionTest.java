@@ -19,13 +19,22 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 
 import org.atmosphere.cpr.AtmosphereResource;
+import org.atmosphere.cpr.Broadcaster;
 import org.easymock.EasyMock;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
 
 import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.Command;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.server.communication.AtmospherePushConnection;
 import com.vaadin.flow.server.communication.AtmospherePushConnection.State;
 
@@ -55,4 +64,90 @@ public class AtmospherePushConnectionTest {
 
         Assert.assertEquals(State.DISCONNECTED, connection.getState());
     }
+
+    @Test
+    public void pushWhileMessagePending_deferredUntilMessageIsSent() {
+        CompletableFuture<Object> firstMessage = new CompletableFuture<>();
+        List<Runnable> tasks = new ArrayList<>();
+        TestPushConnection connection = createConnection(tasks, firstMessage);
+
+        connection.push(true);
+        connection.push(true);
+        connection.push(true);
+
+        Assert.assertEquals(1, connection.sentPushes);
+        Assert.assertEquals("Only one deferred push should be scheduled", 1,
+                tasks.size());
+
+        firstMessage.complete(null);
+        tasks.remove(0).run();
+
+        Assert.assertEquals(2, connection.sentPushes);
+    }
+
+    @Test
+    public void pushWhileMessageStalls_sentAfterTimeout() {
+        CompletableFuture<Object> stalledMessage = new CompletableFuture<>();
+        List<Runnable> tasks = new ArrayList<>();
+        TestPushConnection connection = createConnection(tasks,
+                stalledMessage);
+
+        connection.push(true);
+        connection.push(true);
+        Assert.assertEquals(1, connection.sentPushes);
+
+        tasks.remove(0).run();
+        Assert.assertEquals(2, connection.sentPushes);
+
+        // The deferred state is reset, so later pushes are sent again
+        connection.push(true);
+        Assert.assertEquals(3, connection.sentPushes);
+        Assert.assertTrue(tasks.isEmpty());
+    }
+
+    private static TestPushConnection createConnection(List<Runnable> tasks,
+            Future<Object> firstMessage) {
+        VaadinService service = Mockito.mock(VaadinService.class);
+        Mockito.when(service.getAccessExecutor()).thenReturn(tasks::add);
+
+        VaadinSession session = Mockito.mock(VaadinSession.class);
+        Mockito.when(session.getService()).thenReturn(service);
+        Mockito.when(session.access(Mockito.any())).thenAnswer(invocation -> {
+            ((Command) invocation.getArguments()[0]).execute();
+            return null;
+        });
+
+        UI ui = Mockito.mock(UI.class);
+        Mockito.when(ui.getSession()).thenReturn(session);
+
+        AtmosphereResource resource = Mockito.mock(AtmosphereResource.class);
+        Broadcaster broadcaster = Mockito.mock(Broadcaster.class);
+        Mockito.when(resource.getBroadcaster()).thenReturn(broadcaster);
+        Mockito.when(broadcaster.broadcast(Mockito.any(), Mockito.eq(resource)))
+                .thenReturn(firstMessage,
+                        CompletableFuture.completedFuture(null));
+
+        TestPushConnection connection = new TestPushConnection(ui);
+        connection.connect(resource);
+        return connection;
+    }
+
+    private static class TestPushConnection extends AtmospherePushConnection {
+        private int sentPushes;
+
+        private TestPushConnection(UI ui) {
+            super(ui);
+        }
+
+        @Override
+        void sendPush(boolean async) {
+            sentPushes++;
+            sendMessage("push");
+        }
+
+        @Override
+        long getDeferredPushTimeout() {
+            return 10;
+        }
+    }
 }
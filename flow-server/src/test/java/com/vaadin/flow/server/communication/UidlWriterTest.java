@@ -17,6 +17,7 @@ package com.vaadin.flow.server.communication;
 
 import javax.servlet.http.HttpServletRequest;
 
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -47,12 +48,14 @@ import com.vaadin.flow.server.MockServletServiceSessionSetup;
 import com.vaadin.flow.server.VaadinServletRequest;
 import com.vaadin.flow.server.VaadinSession;
 import com.vaadin.flow.shared.ApplicationConstants;
+import com.vaadin.flow.shared.JsonConstants;
 import com.vaadin.flow.shared.ui.Dependency;
 import com.vaadin.flow.shared.ui.LoadMode;
 
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
+import elemental.json.impl.JsonUtil;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.core.Is.is;
@@ -283,6 +286,58 @@ public class UidlWriterTest {
                 response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
     }
 
+    @Test
+    public void writeUidl_streamedResponseContainsChangesAndDependencies()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        ui.add(new ActualComponent());
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, writer, false, true);
+        JsonObject response = JsonUtil.parse(writer.toString());
+
+        assertTrue(response.getBoolean(ApplicationConstants.RESYNCHRONIZE_ID));
+        assertTrue(response.hasKey(ApplicationConstants.SERVER_SYNC_ID));
+        assertTrue(response.hasKey(ApplicationConstants.CLIENT_TO_SERVER_ID));
+        assertTrue(response.getArray("changes").length() > 0);
+        assertEquals(4, getDependenciesMap(response).size());
+
+        // Nothing new to send, so the second response has no optional members
+        writer = new StringWriter();
+        uidlWriter.writeUidl(ui, writer, false, false);
+        response = JsonUtil.parse(writer.toString());
+
+        assertFalse(response.hasKey(ApplicationConstants.RESYNCHRONIZE_ID));
+        assertFalse(response.hasKey("changes"));
+        assertFalse(response.hasKey("constants"));
+        assertFalse(response.hasKey(LoadMode.EAGER.name()));
+    }
+
+    @Test
+    public void writeUidl_executeProcessor_modifiesOnlyInvocations()
+            throws Exception {
+        UI ui = initializeUIForDependenciesTest(new TestUI());
+        UidlWriter uidlWriter = new UidlWriter();
+        ui.getPage().executeJs("window.foo = $0", "bar");
+
+        StringWriter writer = new StringWriter();
+        uidlWriter.writeUidl(ui, writer, false, false, execute -> {
+            JsonArray invocation = Json.createArray();
+            invocation.set(0, "");
+            invocation.set(1, "window.baz = 1");
+            execute.set(execute.length(), invocation);
+        });
+        JsonObject response = JsonUtil.parse(writer.toString());
+
+        JsonArray execute = response.getArray(JsonConstants.UIDL_KEY_EXECUTE);
+        int last = execute.length() - 1;
+        assertEquals("window.foo = $0",
+                execute.getArray(last - 1).getString(1));
+        assertEquals("window.baz = 1", execute.getArray(last).getString(1));
+        assertTrue(response.hasKey(ApplicationConstants.SERVER_SYNC_ID));
+    }
+
     private void assertInlineDependencies(List<JsonObject> inlineDependencies) {
         assertThat("Should have an inline dependency", inlineDependencies,
                 hasSize(1));